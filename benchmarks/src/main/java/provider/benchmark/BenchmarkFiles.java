@@ -0,0 +1,81 @@
+package provider.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Creates the input files of the benchmarks in a temporary directory.
+ *
+ * @author Ivan Ivanov
+ */
+final class BenchmarkFiles {
+
+	private static final String TEMPLATE_LINE = "<record id=\"{counter}\"><value>{template}</value></record>\n";
+
+	private BenchmarkFiles() {
+		// stateless
+	}
+
+	/**
+	 * @return new temporary directory
+	 * @throws IOException
+	 */
+	static Path createWorkDirectory() throws IOException {
+		return Files.createTempDirectory("file-provider-benchmark");
+	}
+
+	/**
+	 * Writes a file with random content.
+	 *
+	 * @param directory
+	 * @param size
+	 *            size of the file in bytes
+	 * @return the file
+	 * @throws IOException
+	 */
+	static File createRandomFile(Path directory, int size) throws IOException {
+		byte[] content = new byte[size];
+		new Random(size).nextBytes(content);
+		return Files.write(directory.resolve("static-" + size + ".dat"), content).toFile();
+	}
+
+	/**
+	 * Writes a template with placeholders on each line. The rendered file is
+	 * roughly of the given size.
+	 *
+	 * @param directory
+	 * @param size
+	 *            size of the template in bytes
+	 * @return the file
+	 * @throws IOException
+	 */
+	static File createTemplateFile(Path directory, int size) throws IOException {
+		StringBuilder template = new StringBuilder(size + TEMPLATE_LINE.length());
+		while (template.length() < size) {
+			template.append(TEMPLATE_LINE);
+		}
+		return Files.write(directory.resolve("template-" + size + ".tpl"),
+				template.toString().getBytes(StandardCharsets.UTF_8)).toFile();
+	}
+
+	/**
+	 * Deletes the directory with its content.
+	 *
+	 * @param directory
+	 * @throws IOException
+	 */
+	static void delete(Path directory) throws IOException {
+		if (directory == null || !Files.exists(directory)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+}
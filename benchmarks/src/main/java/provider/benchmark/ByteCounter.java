@@ -0,0 +1,28 @@
+package provider.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary benchmark result with the provided bytes. In throughput mode JMH
+ * reports it as bytes per second next to the operations per second.
+ *
+ * @author Ivan Ivanov
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ByteCounter {
+
+	public long bytes;
+
+	/**
+	 * Resets the counter before each iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void reset() {
+		bytes = 0;
+	}
+}
@@ -0,0 +1,59 @@
+package provider.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import provider.TemplatingContext;
+import provider.VariableTemplatingEngine;
+
+/**
+ * Templating engine of the benchmarks. Unlike the example engine it does not
+ * keep a list of the generated files, so long runs do not grow the heap.
+ *
+ * @author Ivan Ivanov
+ */
+class CountingTemplatingEngine implements VariableTemplatingEngine {
+
+	private final AtomicLong counter = new AtomicLong();
+
+	@Override
+	public TemplatingContext initIteration(long iteration) {
+		return new TemplatingContext(counter.incrementAndGet());
+	}
+
+	@Override
+	public String getReplacement(TemplatingContext context, String variableName) {
+		switch (variableName) {
+			case "counter":
+				return String.valueOf(context.getIteration());
+			case "template":
+				return Long.toHexString(context.getIteration() * 0x9E3779B97F4A7C15L);
+			default:
+				return null;
+		}
+	}
+
+	@Override
+	public String getFileName(TemplatingContext context, String initialFileName) {
+		return context.getIteration() + "-" + initialFileName;
+	}
+
+	@Override
+	public String getReplacement(String variableName) {
+		return getReplacement(new TemplatingContext(counter.get()), variableName);
+	}
+
+	@Override
+	public String getReplacement() {
+		return getReplacement("template");
+	}
+
+	@Override
+	public String getFileName(String initialFileName) {
+		return getFileName(new TemplatingContext(counter.get()), initialFileName);
+	}
+
+	@Override
+	public void initCurrentIteration() {
+		counter.incrementAndGet();
+	}
+}
@@ -0,0 +1,115 @@
+package provider.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import provider.FileProvider;
+import provider.FileProviderTypeFactory;
+import provider.FileProviderTypes;
+import provider.data.BufferPool;
+import provider.data.FileProviderData;
+import provider.random.FileNameGenerator;
+import provider.random.XorShiftPayloadGenerator;
+
+/**
+ * Throughput of {@link FileProvider#getFileData()} for each provider type and
+ * payload size. Reports files/s and, through {@link ByteCounter}, bytes/s. Run
+ * with "-prof gc" for the allocation per file.
+ *
+ * @author Ivan Ivanov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileProviderBenchmark {
+
+	private static final long SEED = 42L;
+	private static final int BUFFER_POOL_SIZE = 64;
+	private static final double[] MIX_WEIGHTS = { 70, 25, 5 };
+
+	@Param({ "QUICK_FILE_PROVIDER", "RANDOM_FILE_PROVIDER", "STATIC_FILE_PROVIDER", "TEMPLATE_FILE_PROVIDER",
+			"MIX_FILE_PROVIDER" })
+	public FileProviderTypes providerType;
+
+	@Param({ "1024", "65536", "1048576" })
+	public int fileSize;
+
+	private Path workDirectory;
+	private FileProvider fileProvider;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		workDirectory = BenchmarkFiles.createWorkDirectory();
+		fileProvider = createFileProvider(providerType, fileSize, workDirectory);
+		fileProvider.prepareFileData();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fileProvider.releaseFileData();
+		BenchmarkFiles.delete(workDirectory);
+	}
+
+	@Benchmark
+	public void getFileData(ByteCounter counter, Blackhole blackhole) {
+		FileProviderData data = fileProvider.getFileData();
+		counter.bytes += data.getContentLength();
+		blackhole.consume(data);
+		data.release();
+	}
+
+	/**
+	 * Creates a provider of the type generating files of roughly the given size.
+	 *
+	 * @param type
+	 * @param size
+	 *            size of the files in bytes
+	 * @param workDirectory
+	 *            directory for the source files of the static and templatable
+	 *            providers
+	 * @return {@link FileProvider}
+	 * @throws IOException
+	 */
+	static FileProvider createFileProvider(FileProviderTypes type, int size, Path workDirectory) throws IOException {
+		switch (type) {
+			case QUICK_FILE_PROVIDER:
+				return FileProviderTypeFactory.createQuickFileProvider(size, new FileNameGenerator(SEED));
+			case RANDOM_FILE_PROVIDER:
+				return FileProviderTypeFactory.createRandomFileProvider(new BufferPool(size, BUFFER_POOL_SIZE, true),
+						new XorShiftPayloadGenerator(SEED), new FileNameGenerator(SEED));
+			case STATIC_FILE_PROVIDER:
+				File staticFile = BenchmarkFiles.createRandomFile(workDirectory, size);
+				return FileProviderTypeFactory.createStaticFileProvider(staticFile);
+			case TEMPLATE_FILE_PROVIDER:
+				File template = BenchmarkFiles.createTemplateFile(workDirectory, size);
+				return FileProviderTypeFactory.createTemplatableFileProvider(new CountingTemplatingEngine(), template);
+			case MIX_FILE_PROVIDER:
+				FileProvider[] mix = { createFileProvider(FileProviderTypes.TEMPLATE_FILE_PROVIDER, size, workDirectory),
+						createFileProvider(FileProviderTypes.STATIC_FILE_PROVIDER, size, workDirectory),
+						createFileProvider(FileProviderTypes.RANDOM_FILE_PROVIDER, size, workDirectory) };
+				return FileProviderTypeFactory.createMixFileProvider(mix, MIX_WEIGHTS, SEED);
+			default:
+				throw new IllegalArgumentException("Unsupported provider type " + type);
+		}
+	}
+}
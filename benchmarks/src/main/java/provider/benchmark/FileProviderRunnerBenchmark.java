@@ -0,0 +1,118 @@
+package provider.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import provider.FileProviderExecutionModes;
+import provider.FileProviderModes;
+import provider.FileProviderOutputModes;
+import provider.FileProviderTypes;
+import provider.properties.FileProviderProperties;
+import provider.runner.FileProviderRunner;
+
+/**
+ * End-to-end throughput of {@link FileProviderRunner} in static mode. Each
+ * invocation writes {@value #FILES_PER_RUN} files as fast as possible to a new
+ * output directory, so the score is written files/s and, through
+ * {@link ByteCounter}, written bytes/s.
+ *
+ * @author Ivan Ivanov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(FileProviderRunnerBenchmark.FILES_PER_RUN)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileProviderRunnerBenchmark {
+
+	static final int FILES_PER_RUN = 1000;
+
+	private static final String UNLIMITED_RATE = "1000000000";
+	private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	@Param({ "QUICK_FILE_PROVIDER", "RANDOM_FILE_PROVIDER" })
+	public FileProviderTypes providerType;
+
+	@Param({ "FILES", "SEGMENT", "NULL" })
+	public FileProviderOutputModes outputMode;
+
+	@Param({ "4096", "65536" })
+	public int fileSize;
+
+	@Param({ "1", "4" })
+	public int writerThreads;
+
+	@Param({ "RX", "VIRTUAL_THREADS" })
+	public FileProviderExecutionModes executionMode;
+
+	private Path workDirectory;
+	private Path outputDirectory;
+	private FileProviderRunner runner;
+	private int runs;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Logger.getLogger("provider").setLevel(org.apache.log4j.Level.WARN);
+		workDirectory = BenchmarkFiles.createWorkDirectory();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		BenchmarkFiles.delete(workDirectory);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareRun() throws IOException {
+		outputDirectory = Files.createDirectories(workDirectory.resolve("run-" + runs++));
+
+		Properties properties = new Properties();
+		properties.setProperty(FileProviderProperties.KEY_PROVIDER_TYPE, providerType.name());
+		properties.setProperty(FileProviderProperties.KEY_PROVIDER_MODE, FileProviderModes.STATIC.name());
+		properties.setProperty(FileProviderProperties.KEY_STATIC_FILES_COUNT, String.valueOf(FILES_PER_RUN));
+		properties.setProperty(FileProviderProperties.KEY_FILE_SIZE, String.valueOf(fileSize));
+		properties.setProperty(FileProviderProperties.KEY_FILE_DIRECTORY_STORE, outputDirectory.toString());
+		properties.setProperty(FileProviderProperties.KEY_RATE_FILES_PER_SECOND, UNLIMITED_RATE);
+		properties.setProperty(FileProviderProperties.KEY_WRITER_THREADS, String.valueOf(writerThreads));
+		properties.setProperty(FileProviderProperties.KEY_EXECUTION_MODE, executionMode.name());
+		properties.setProperty(FileProviderProperties.KEY_OUTPUT_MODE, outputMode.name());
+		properties.setProperty(FileProviderProperties.KEY_OUTPUT_SEGMENT_SIZE, String.valueOf(SEGMENT_SIZE));
+		FileProviderProperties providerProperties = new FileProviderProperties();
+		providerProperties.setProperties(properties);
+
+		runner = new FileProviderRunner(
+				FileProviderBenchmark.createFileProvider(providerType, fileSize, workDirectory), providerProperties);
+	}
+
+	@TearDown(Level.Invocation)
+	public void cleanUpRun() throws IOException {
+		BenchmarkFiles.delete(outputDirectory);
+	}
+
+	@Benchmark
+	public int run(ByteCounter counter) {
+		runner.start();
+		counter.bytes += (long) FILES_PER_RUN * fileSize;
+		return runner.getProcessedFiles();
+	}
+}
@@ -19,6 +19,23 @@ public interface FileProvider {
 	 */
 	FileProviderData getFileData();
 
+	/**
+	 * Fills the batch with the data of the next files, as if
+	 * {@link #getFileData()} was called for each element. Implementations share
+	 * the work of a call over the whole batch, e.g. reserve the names or take
+	 * the buffers at once.
+	 *
+	 * @param batch
+	 *            receives the files from index 0
+	 * @return count of the provided files
+	 */
+	default int fill(FileProviderData[] batch) {
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = getFileData();
+		}
+		return batch.length;
+	}
+
 	/**
 	 * Prepares the data. E.g. reading files in, files processing...
 	 *
@@ -26,4 +43,15 @@ public interface FileProvider {
 	 *             when problems occur during the file data preparations.
 	 */
 	void prepareFileData() throws IOException;
+
+	/**
+	 * Releases the resources acquired in {@link #prepareFileData()}. E.g. closing
+	 * opened files.
+	 *
+	 * @throws IOException
+	 *             when problems occur during releasing of the resources.
+	 */
+	default void releaseFileData() throws IOException {
+		// nothing to release
+	}
 }
@@ -0,0 +1,22 @@
+package provider;
+
+import provider.implementations.QuickFileProvider;
+
+/**
+ * Defines how the files of the {@link QuickFileProvider} get their size on the
+ * disk.
+ * <ul>
+ * <li>WRITE - the zeros are written</li>
+ * <li>SPARSE - only the last byte is written after a seek, the rest of the file
+ * is a hole</li>
+ * </ul>
+ * There is no mode reserving the space without writing the zeros, Java offers
+ * no fallocate. SPARSE applies to the FILES and ASYNC output modes, the other
+ * output modes write the zeros.
+ *
+ * @author Ivan Ivanov
+ */
+public enum FileProviderAllocationModes {
+	WRITE,
+	SPARSE
+}
@@ -0,0 +1,18 @@
+package provider;
+
+import provider.runner.FileProviderCoordinator;
+
+/**
+ * Defines the unit of the global budget shared by the runners of a
+ * {@link FileProviderCoordinator}.
+ * <ul>
+ * <li>FILES - written files per second</li>
+ * <li>BYTES - written bytes per second</li>
+ * </ul>
+ *
+ * @author Ivan Ivanov
+ */
+public enum FileProviderBudgetUnits {
+	FILES,
+	BYTES
+}
@@ -0,0 +1,22 @@
+package provider;
+
+import provider.runner.FileProviderRunner;
+
+/**
+ * Defines when the files written by the {@link FileProviderRunner} are synced to
+ * the disk.
+ * <ul>
+ * <li>NONE - never, the operating system writes them back whenever it wants</li>
+ * <li>GROUP - the files of each writer are synced in batches, the directory
+ * once per batch</li>
+ * <li>FILE - each file and its directory are synced before the next file is
+ * written</li>
+ * </ul>
+ *
+ * @author Ivan Ivanov
+ */
+public enum FileProviderDurabilityModes {
+	NONE,
+	GROUP,
+	FILE
+}
@@ -0,0 +1,21 @@
+package provider;
+
+import provider.runner.FileProviderRunner;
+
+/**
+ * Defines how the {@link FileProviderRunner} schedules the generation and the
+ * writes of the files.
+ * <ul>
+ * <li>RX - the ticks are emitted by RxJava and the files are written by a pool
+ * of writer threads</li>
+ * <li>VIRTUAL_THREADS - the ticks are paced by a plain driver thread and each
+ * file is written by its own virtual thread, up to a concurrency cap. Without
+ * virtual threads (before Java 21) platform threads are used instead</li>
+ * </ul>
+ *
+ * @author Ivan Ivanov
+ */
+public enum FileProviderExecutionModes {
+	RX,
+	VIRTUAL_THREADS
+}
@@ -1,10 +1,19 @@
 package provider;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
 
 import org.apache.log4j.Logger;
 
+import provider.data.SizeClassBufferPool;
+import provider.exception.FileProviderPropertiesValidationException;
 import provider.properties.FileProviderProperties;
+import provider.random.FileNameGenerator;
+import provider.random.PayloadGeneratorFactory;
+import provider.random.SizeDistribution;
+import provider.random.SizeDistributionFactory;
 import provider.runner.FileProviderRunner;
 
 /**
@@ -16,6 +25,8 @@ public final class FileProviderFactory {
 
 	private static final Logger log = Logger.getLogger(FileProviderFactory.class);
 
+	private static final int MAIN_PROVIDER = -1;
+
 	private FileProviderFactory() {
 		// stateless
 	}
@@ -34,24 +45,106 @@ public final class FileProviderFactory {
 		log.info("Validating properties.");
 		properties.validateProperties();
 
+		Long definedSeed = properties.getRandomSeed();
+		long seed = definedSeed != null ? definedSeed : new SecureRandom().nextLong();
+		FileNameGenerator fileNameGenerator = new FileNameGenerator(seed);
+
 		FileProvider fp = null;
-		switch (FileProviderTypes.valueOf(properties.getProviderType())) {
+		FileProviderTypes type = FileProviderTypes.valueOf(properties.getProviderType());
+		if (type == FileProviderTypes.MIX_FILE_PROVIDER) {
+			int size = properties.getMixSize();
+			FileProvider[] fileProviders = new FileProvider[size];
+			double[] weights = new double[size];
+			for (int i = 0; i < size; i++) {
+				fileProviders[i] = createFileProvider(properties.getMixType(i), i, properties, seed + i + 1,
+						fileNameGenerator, tpEngine, files);
+				weights[i] = properties.getMixWeight(i);
+			}
+			fp = FileProviderTypeFactory.createMixFileProvider(fileProviders, weights, seed,
+					properties.getGenerationBatchSize());
+		} else {
+			fp = createFileProvider(type, MAIN_PROVIDER, properties, seed, fileNameGenerator, tpEngine, files);
+		}
+
+		fpr = new FileProviderRunner(fp, properties);
+		
+		return fpr;
+	}
+
+	/**
+	 * Creates the provider of the type. A provider of the mix takes its size
+	 * and directory from its own "provider.mix.&lt;index&gt;.*" properties.
+	 *
+	 * @param mixIndex
+	 *            index of the provider in the mix, {@value #MAIN_PROVIDER} for
+	 *            the provider of "provider.type"
+	 */
+	private static FileProvider createFileProvider(FileProviderTypes type, int mixIndex,
+			FileProviderProperties properties, long seed, FileNameGenerator fileNameGenerator, TemplatingEngine tpEngine,
+			File... files) {
+		switch (type) {
 			case QUICK_FILE_PROVIDER:
-				fp = FileProviderTypeFactory.createQuickFileProvider(Integer.valueOf(properties.getFileSize()));
-				break;
+				return FileProviderTypeFactory.createQuickFileProvider(sizeDistributionOf(properties, mixIndex, seed),
+						properties.getFileStreamThreshold(), properties.getQuickAllocationMode(), fileNameGenerator);
 			case RANDOM_FILE_PROVIDER:
-				fp = FileProviderTypeFactory.createRandomFileProvider(Integer.valueOf(properties.getFileSize()));
-				break;
+				SizeDistribution sizeDistribution = sizeDistributionOf(properties, mixIndex, seed);
+				int streamThreshold = properties.getFileStreamThreshold();
+				SizeClassBufferPool bufferPools = new SizeClassBufferPool(
+						(int) Math.min(sizeDistribution.getMinSize(), streamThreshold),
+						(int) Math.min(sizeDistribution.getMaxSize(), streamThreshold), properties.getBufferPoolSize(),
+						properties.isBufferDirect());
+				return FileProviderTypeFactory.createRandomFileProvider(bufferPools, sizeDistribution, streamThreshold,
+						PayloadGeneratorFactory.createPayloadGenerator(properties.getRandomGenerator(), seed, properties.getRandomPoolSize()),
+						fileNameGenerator);
 			case STATIC_FILE_PROVIDER:
-				fp = FileProviderTypeFactory.createStaticFileProvider(new File(properties.getFileDirectory()));
-				break;				
+				String directory = mixIndex == MAIN_PROVIDER ? properties.getFileDirectory()
+						: properties.getMixFileDirectory(mixIndex);
+				return FileProviderTypeFactory.createStaticFileProvider(properties.isStaticZeroCopy(), new File(directory));
 			case TEMPLATE_FILE_PROVIDER:
-				fp = FileProviderTypeFactory.createTemplatableFileProvider(tpEngine, files);
-				break;
+				if (mixIndex != MAIN_PROVIDER && !properties.getMixFileDirectory(mixIndex).isEmpty()) {
+					return FileProviderTypeFactory.createTemplatableFileProvider(tpEngine,
+							new File(properties.getMixFileDirectory(mixIndex)));
+				}
+				return FileProviderTypeFactory.createTemplatableFileProvider(tpEngine, files);
+			default:
+				throw new FileProviderPropertiesValidationException(
+						FileProviderPropertiesValidationException.EXCEPTION_WRONG_PROVIDER);
 		}
+	}
 
-		fpr = new FileProviderRunner(fp, properties);
-		
-		return fpr;
+	private static long fileSizeOf(FileProviderProperties properties, int mixIndex) {
+		return mixIndex == MAIN_PROVIDER ? Long.parseLong(properties.getFileSize()) : properties.getMixFileSize(mixIndex);
+	}
+
+	/**
+	 * The distribution is shared by the providers of the mix, each with its
+	 * own file size. Its generator is seeded apart from the content.
+	 */
+	private static SizeDistribution sizeDistributionOf(FileProviderProperties properties, int mixIndex, long seed) {
+		long fileSize = fileSizeOf(properties, mixIndex);
+		double shape;
+		switch (properties.getSizeDistribution()) {
+			case NORMAL:
+				double stddev = properties.getFileSizeStddev();
+				shape = stddev > 0 ? stddev : fileSize / 4.0;
+				break;
+			case LOGNORMAL:
+				shape = properties.getFileSizeSigma();
+				break;
+			case PARETO:
+				shape = properties.getFileSizeAlpha();
+				break;
+			default:
+				shape = 0;
+		}
+		try {
+			return SizeDistributionFactory.createSizeDistribution(properties.getSizeDistribution(), fileSize,
+					properties.getFileSizeMin(), properties.getFileSizeMax(), shape,
+					Paths.get(properties.getFileSizeHistogram()), FileNameGenerator.mix(seed));
+		} catch (IOException | NumberFormatException e) {
+			log.error(e.getMessage());
+			throw new FileProviderPropertiesValidationException(
+					FileProviderPropertiesValidationException.EXCEPTION_WRONG_SIZE_HISTOGRAM);
+		}
 	}
 }
@@ -0,0 +1,18 @@
+package provider;
+
+import provider.runner.FileProviderRunner;
+
+/**
+ * Defines how the {@link FileProviderRunner} stores the generated files.
+ *
+ * @author Ivan Ivanov
+ */
+public enum FileProviderOutputModes {
+	FILES,
+	SEGMENT,
+	ASYNC,
+	TAR,
+	ZIP,
+	NULL,
+	TCP
+}
@@ -0,0 +1,24 @@
+package provider;
+
+import provider.runner.FileProviderRunner;
+
+/**
+ * Defines what the {@link FileProviderRunner} does in dynamic mode with the
+ * ticks arriving while the generation and the writers are still busy.
+ * <ul>
+ * <li>DROP - the tick is dropped and counted</li>
+ * <li>BUFFER - the tick waits in a bounded buffer, ticks not fitting in it are
+ * dropped and counted</li>
+ * <li>LATEST - only the most recent tick waits, the older one is dropped and
+ * counted</li>
+ * <li>FAIL - the provider stops at the first tick that cannot be served</li>
+ * </ul>
+ *
+ * @author Ivan Ivanov
+ */
+public enum FileProviderOverloadPolicies {
+	DROP,
+	BUFFER,
+	LATEST,
+	FAIL
+}
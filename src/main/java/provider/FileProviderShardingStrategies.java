@@ -0,0 +1,22 @@
+package provider;
+
+import provider.runner.FileProviderRunner;
+
+/**
+ * Defines how the {@link FileProviderRunner} spreads the written files over
+ * subdirectories of the output directory. The count of the subdirectories is
+ * the fan-out, they are all created at the start.
+ * <ul>
+ * <li>NONE - all files are written into the output directory</li>
+ * <li>HASH - the subdirectory is chosen by the hash of the file name</li>
+ * <li>TIME - the subdirectory is chosen by the time bucket of the write, the
+ * buckets rotate over the subdirectories</li>
+ * </ul>
+ *
+ * @author Ivan Ivanov
+ */
+public enum FileProviderShardingStrategies {
+	NONE,
+	HASH,
+	TIME
+}
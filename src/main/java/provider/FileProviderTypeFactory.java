@@ -2,10 +2,17 @@ package provider;
 
 import java.io.File;
 
+import provider.data.BufferPool;
+import provider.data.FileProviderData;
+import provider.data.SizeClassBufferPool;
+import provider.implementations.MixFileProvider;
 import provider.implementations.QuickFileProvider;
 import provider.implementations.RandomFileProvider;
 import provider.implementations.StaticFileProvider;
 import provider.implementations.TemplatableFileProvider;
+import provider.random.FileNameGenerator;
+import provider.random.PayloadGenerator;
+import provider.random.SizeDistribution;
 
 import provider.TemplatingEngine;
 
@@ -22,10 +29,12 @@ public final class FileProviderTypeFactory {
 
 	/**
 	 * Create new templatable file provider. On each request the provider gets a
-	 * file from the list, replaces the first occurrence of "{template}" with the
-	 * data from the templating engine and provides it back.
+	 * file from the list, replaces the "{template}" placeholders with the data
+	 * from the templating engine and provides it back.
 	 * {@link TemplatingEngine#getReplacement()} is called for each request. It can
-	 * be used to generate timestamps, unique ids or other data. The concrete
+	 * be used to generate timestamps, unique ids or other data. A
+	 * {@link VariableTemplatingEngine} replaces every named placeholder, e.g.
+	 * "{id}" or "{timestamp}", with the value of the variable. The concrete
 	 * implementation is left to the developer.
 	 *
 	 * @param templatingEngine
@@ -51,6 +60,22 @@ public final class FileProviderTypeFactory {
 		return new StaticFileProvider(files);
 	}
 
+	/**
+	 * Create a new static provider. It is used to manage a list of file. On each
+	 * request a file from the list is provided back. In zero copy mode the files
+	 * are not loaded into memory, they are transferred directly from the source
+	 * files when written.
+	 *
+	 * @param zeroCopy
+	 *            keep only the opened channels of the files
+	 * @param files
+	 *            the files to be send to the test driver on each request.
+	 * @return {@link FileProvider}
+	 */
+	public static FileProvider createStaticFileProvider(boolean zeroCopy, File... files) {
+		return new StaticFileProvider(zeroCopy, files);
+	}
+
 	/**
 	 * Create a quick file provider, which generates empty data with predefined size
 	 * 
@@ -62,6 +87,56 @@ public final class FileProviderTypeFactory {
 		return new QuickFileProvider(dataSize);
 	}
 
+	/**
+	 * Create a quick file provider, which generates empty data with predefined size
+	 * 
+	 * @param dataSize
+	 *            data size in byte
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 * @return {@link FileProvider}
+	 */
+	public static FileProvider createQuickFileProvider(int dataSize, FileNameGenerator fileNameGenerator) {
+		return new QuickFileProvider(dataSize, fileNameGenerator);
+	}
+
+	/**
+	 * Create a quick file provider, which generates empty data with sizes of
+	 * the distribution
+	 * 
+	 * @param sizeDistribution
+	 *            generates the sizes of the files
+	 * @param streamThreshold
+	 *            size in bytes above which the content is streamed
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 * @return {@link FileProvider}
+	 */
+	public static FileProvider createQuickFileProvider(SizeDistribution sizeDistribution, int streamThreshold,
+			FileNameGenerator fileNameGenerator) {
+		return new QuickFileProvider(sizeDistribution, streamThreshold, fileNameGenerator);
+	}
+
+	/**
+	 * Create a quick file provider, which generates empty data with sizes of
+	 * the distribution. With SPARSE the files get their size without writing
+	 * the zeros.
+	 * 
+	 * @param sizeDistribution
+	 *            generates the sizes of the files
+	 * @param streamThreshold
+	 *            size in bytes above which the content is streamed
+	 * @param allocationMode
+	 *            how the files get their size on the disk
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 * @return {@link FileProvider}
+	 */
+	public static FileProvider createQuickFileProvider(SizeDistribution sizeDistribution, int streamThreshold,
+			FileProviderAllocationModes allocationMode, FileNameGenerator fileNameGenerator) {
+		return new QuickFileProvider(sizeDistribution, streamThreshold, allocationMode, fileNameGenerator);
+	}
+
 	/**
 	 * Create a random data file provider. It generates file with with predefined
 	 * size and filled with random data
@@ -74,4 +149,86 @@ public final class FileProviderTypeFactory {
 		return new RandomFileProvider(dataSize);
 	}
 
+	/**
+	 * Create a random data file provider. It generates file with with predefined
+	 * size and filled with data of the payload generator. The content is held in
+	 * buffers of the pool, which must be released with
+	 * {@link FileProviderData#release()} after the file is written.
+	 * 
+	 * @param bufferPool
+	 *            provides the buffers of the files, the size of the buffers is
+	 *            the size of the files
+	 * @param payloadGenerator
+	 *            generates the content of the files
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 * @return {@link FileProvider}
+	 */
+	public static FileProvider createRandomFileProvider(BufferPool bufferPool, PayloadGenerator payloadGenerator,
+			FileNameGenerator fileNameGenerator) {
+		return new RandomFileProvider(bufferPool, payloadGenerator, fileNameGenerator);
+	}
+
+	/**
+	 * Create a random data file provider with sizes of the distribution. The
+	 * content is held in buffers of the size classes, which must be released
+	 * with {@link FileProviderData#release()} after the file is written. The
+	 * content of larger files than the stream threshold is streamed.
+	 * 
+	 * @param bufferPools
+	 *            provides the buffers of the files, covering the sizes of the
+	 *            distribution
+	 * @param sizeDistribution
+	 *            generates the sizes of the files
+	 * @param streamThreshold
+	 *            size in bytes above which the content is streamed
+	 * @param payloadGenerator
+	 *            generates the content of the files
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 * @return {@link FileProvider}
+	 */
+	public static FileProvider createRandomFileProvider(SizeClassBufferPool bufferPools,
+			SizeDistribution sizeDistribution, int streamThreshold, PayloadGenerator payloadGenerator,
+			FileNameGenerator fileNameGenerator) {
+		return new RandomFileProvider(bufferPools, sizeDistribution, streamThreshold, payloadGenerator,
+				fileNameGenerator);
+	}
+
+	/**
+	 * Create a mix provider. Each file is drawn from one of the providers by
+	 * weight, the same seed gives the same sequence of providers.
+	 * 
+	 * @param fileProviders
+	 *            providers of the mix
+	 * @param weights
+	 *            positive weight of each provider
+	 * @param seed
+	 *            seed of the choice of the providers
+	 * @return {@link FileProvider}
+	 */
+	public static FileProvider createMixFileProvider(FileProvider[] fileProviders, double[] weights, long seed) {
+		return new MixFileProvider(fileProviders, weights, seed);
+	}
+
+	/**
+	 * Create a mix provider filling batches of the given size. Each file is
+	 * drawn from one of the providers by weight, the same seed gives the same
+	 * sequence of providers.
+	 * 
+	 * @param fileProviders
+	 *            providers of the mix
+	 * @param weights
+	 *            positive weight of each provider
+	 * @param seed
+	 *            seed of the choice of the providers
+	 * @param batchSize
+	 *            count of files of a generation batch
+	 * @return {@link FileProvider}
+	 */
+	public static FileProvider createMixFileProvider(FileProvider[] fileProviders, double[] weights, long seed,
+			int batchSize) {
+		return new MixFileProvider(fileProviders, weights, seed, batchSize);
+	}
+
 }
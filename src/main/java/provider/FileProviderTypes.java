@@ -9,5 +9,6 @@ public enum FileProviderTypes {
 	QUICK_FILE_PROVIDER,
 	STATIC_FILE_PROVIDER,
 	RANDOM_FILE_PROVIDER,
-	TEMPLATE_FILE_PROVIDER
+	TEMPLATE_FILE_PROVIDER,
+	MIX_FILE_PROVIDER
 }
@@ -0,0 +1,45 @@
+package provider;
+
+/**
+ * State of a single templating iteration. It is created by
+ * {@link TemplatingEngine#initIteration(long)} and passed to the other calls of
+ * the same iteration, so the engine does not need to keep the state of the
+ * current iteration in shared fields.
+ *
+ * @author Ivan Ivanov
+ */
+public class TemplatingContext {
+
+	private final long iteration;
+	private Object attachment;
+
+	/**
+	 * @param iteration
+	 *            number of the iteration
+	 */
+	public TemplatingContext(long iteration) {
+		this.iteration = iteration;
+	}
+
+	/**
+	 * @return number of the iteration
+	 */
+	public long getIteration() {
+		return iteration;
+	}
+
+	/**
+	 * @return engine specific state of the iteration
+	 */
+	public Object getAttachment() {
+		return attachment;
+	}
+
+	/**
+	 * @param attachment
+	 *            engine specific state of the iteration
+	 */
+	public void setAttachment(Object attachment) {
+		this.attachment = attachment;
+	}
+}
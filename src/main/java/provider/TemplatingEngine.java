@@ -2,6 +2,14 @@ package provider;
 
 /**
  * Defines what a templating engine provider needs to implement.
+ * <p>
+ * One iteration consists of {@link #initIteration(long)},
+ * {@link #getReplacement(TemplatingContext)} and
+ * {@link #getFileName(TemplatingContext, String)}. Engines keeping the state of
+ * the iteration in the {@link TemplatingContext} can be used by concurrent
+ * providers without any synchronization. The default implementations delegate
+ * to the methods without context, which share the state of the current
+ * iteration and are not safe for concurrent use.
  * 
  * @author Ivan Ivanov
  */
@@ -11,8 +19,9 @@ public interface TemplatingEngine {
 	 * Provides custom replacement data for templates. The method is called every
 	 * time a file is requested from the provider.
 	 * 
-	 * @return string that replaces the first occurrence of "{template}" in the
-	 *         requested file
+	 * @return string that replaces the "{template}" placeholders in the requested
+	 *         file. Use {@link VariableTemplatingEngine} to replace other named
+	 *         placeholders.
 	 */
 	String getReplacement();
 
@@ -31,4 +40,41 @@ public interface TemplatingEngine {
 	 * is requested this is called.
 	 */
 	void initCurrentIteration();
+
+	/**
+	 * Initializes a new iteration. Each time a file is requested this is called.
+	 *
+	 * @param iteration
+	 *            number of the iteration in the provider
+	 * @return context passed to the other calls of the iteration
+	 */
+	default TemplatingContext initIteration(long iteration) {
+		initCurrentIteration();
+		return new TemplatingContext(iteration);
+	}
+
+	/**
+	 * Provides custom replacement data for templates of the iteration.
+	 *
+	 * @param context
+	 *            context of the iteration
+	 * @return string that replaces the "{template}" placeholders in the requested
+	 *         file
+	 */
+	default String getReplacement(TemplatingContext context) {
+		return getReplacement();
+	}
+
+	/**
+	 * Provides a custom file name for the iteration.
+	 *
+	 * @param context
+	 *            context of the iteration
+	 * @param initialFileName
+	 *            the initial name of the file
+	 * @return string used in the request instead of the initial file name
+	 */
+	default String getFileName(TemplatingContext context, String initialFileName) {
+		return getFileName(initialFileName);
+	}
 }
@@ -0,0 +1,38 @@
+package provider;
+
+/**
+ * Extension of {@link TemplatingEngine} supplying a value for each named
+ * placeholder. Every "{name}" placeholder in a template file is replaced by the
+ * value of the variable "name", e.g. "{id}", "{timestamp}" or "{amount}".
+ *
+ * @author Ivan Ivanov
+ */
+public interface VariableTemplatingEngine extends TemplatingEngine {
+
+	/**
+	 * Provides the value of a variable for the current iteration. The method is
+	 * called once per variable every time a file is requested from the provider,
+	 * after {@link #initCurrentIteration()}. All placeholders of the variable in
+	 * the file get the same value.
+	 *
+	 * @param variableName
+	 *            name of the placeholder without the curly brackets
+	 * @return string that replaces the placeholders of the variable or null to
+	 *         leave them as they are
+	 */
+	String getReplacement(String variableName);
+
+	/**
+	 * Provides the value of a variable for the iteration.
+	 *
+	 * @param context
+	 *            context of the iteration
+	 * @param variableName
+	 *            name of the placeholder without the curly brackets
+	 * @return string that replaces the placeholders of the variable or null to
+	 *         leave them as they are
+	 */
+	default String getReplacement(TemplatingContext context, String variableName) {
+		return getReplacement(variableName);
+	}
+}
@@ -0,0 +1,129 @@
+package provider.data;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import provider.exception.FileProviderRuntimeException;
+
+/**
+ * Pool of equally sized buffers for the content of {@link FileProviderData}.
+ * A buffer is acquired by the provider, written by the runner and given back
+ * with {@link FileProviderData#release()}. Buffers are allocated lazily up to
+ * the maximum count, afterwards {@link #acquire()} waits for a released one.
+ * Once all buffers are allocated no further allocation happens.
+ *
+ * @author Ivan Ivanov
+ */
+public class BufferPool {
+
+	private final int bufferSize;
+	private final int maxBuffers;
+	private final boolean direct;
+	private final BlockingQueue<ByteBuffer> freeBuffers;
+	private final AtomicInteger allocated;
+
+	/**
+	 * @param bufferSize
+	 *            size of each buffer in bytes
+	 * @param maxBuffers
+	 *            maximum count of buffers. {@link Integer#MAX_VALUE} never waits
+	 *            and allocates when no buffer is free.
+	 * @param direct
+	 *            allocate off-heap direct buffers
+	 */
+	public BufferPool(int bufferSize, int maxBuffers, boolean direct) {
+		this.bufferSize = bufferSize;
+		this.maxBuffers = maxBuffers;
+		this.direct = direct;
+		this.freeBuffers = maxBuffers == Integer.MAX_VALUE ? new LinkedBlockingQueue<>()
+				: new ArrayBlockingQueue<>(maxBuffers);
+		this.allocated = new AtomicInteger();
+	}
+
+	/**
+	 * Takes a free buffer from the pool. Waits while all buffers are in use.
+	 *
+	 * @return cleared buffer of {@link #getBufferSize()} bytes
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = this.freeBuffers.poll();
+		if (buffer != null) {
+			return buffer;
+		}
+		while (true) {
+			int count = this.allocated.get();
+			if (count >= this.maxBuffers) {
+				break;
+			}
+			if (this.allocated.compareAndSet(count, count + 1)) {
+				return this.direct ? ByteBuffer.allocateDirect(this.bufferSize) : ByteBuffer.allocate(this.bufferSize);
+			}
+		}
+		try {
+			return this.freeBuffers.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FileProviderRuntimeException(FileProviderRuntimeException.BUFFER_ACQUIRE_INTERRUPTED_EXCEPTION);
+		}
+	}
+
+	/**
+	 * Takes free buffers for a whole batch. The free buffers are taken at once,
+	 * the rest is allocated or waited for like with {@link #acquire()}.
+	 *
+	 * @param buffers
+	 *            receives the cleared buffers
+	 */
+	public void acquire(ByteBuffer[] buffers) {
+		List<ByteBuffer> free = new ArrayList<>(buffers.length);
+		this.freeBuffers.drainTo(free, buffers.length);
+		int taken = 0;
+		try {
+			for (; taken < buffers.length; taken++) {
+				buffers[taken] = taken < free.size() ? free.get(taken) : this.acquire();
+			}
+		} catch (FileProviderRuntimeException e) {
+			for (int i = 0; i < taken; i++) {
+				this.release(buffers[i]);
+				buffers[i] = null;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Gives the buffer back to the pool.
+	 *
+	 * @param buffer
+	 */
+	public void release(ByteBuffer buffer) {
+		buffer.clear();
+		this.freeBuffers.offer(buffer);
+	}
+
+	/**
+	 * @return size of each buffer in bytes
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * @return count of the allocated buffers
+	 */
+	public int getAllocated() {
+		return allocated.get();
+	}
+
+	/**
+	 * @return count of the buffers waiting in the pool
+	 */
+	public int getAvailable() {
+		return freeBuffers.size();
+	}
+}
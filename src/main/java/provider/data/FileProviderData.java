@@ -1,16 +1,50 @@
 package provider.data;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import provider.FileProvider;
+import provider.FileProviderAllocationModes;
 
 /**
- * Encapsulates the file data provided by {@link FileProvider}
- * 
+ * Encapsulates the file data provided by {@link FileProvider}. The data is
+ * either held in memory, in a pooled buffer, refers to a region of an already
+ * opened source file or is streamed once from a channel.
+ * <p>
+ * Data in a pooled buffer must be given back with {@link #release()} once it is
+ * written. The content must not be used after that.
+ * <p>
+ * Streamed content is produced while it is read, so files of any size are
+ * written with the memory of a single chunk.
+ *
  * @author Ivan Ivanov
  */
 public class FileProviderData {
 
+	/**
+	 * Size of the chunks of streamed content in bytes
+	 */
+	public static final int STREAM_CHUNK_SIZE = 1024 * 1024;
+
+	private static final AtomicIntegerFieldUpdater<FileProviderData> RELEASED = AtomicIntegerFieldUpdater
+			.newUpdater(FileProviderData.class, "released");
+
 	private byte[] fileContent;
+	private ByteBuffer contentBuffer;
+	private BufferPool bufferPool;
+	private FileChannel sourceChannel;
+	private ReadableByteChannel contentStream;
+	private long streamed;
+	private long contentLength;
 	private String fileName;
+	private long scheduledTime;
+	private boolean scheduled;
+	private FileProviderAllocationModes allocationMode = FileProviderAllocationModes.WRITE;
+	private volatile int released;
 
 	/**
 	 * @param fileContent
@@ -18,20 +52,209 @@ public class FileProviderData {
 	 */
 	public FileProviderData(byte[] fileContent, String fileName) {
 		this.fileContent = fileContent;
+		this.contentLength = fileContent.length;
+		this.fileName = fileName;
+	}
+
+	/**
+	 * Creates file data held in a buffer of the pool. The content is between
+	 * the position and the limit of the buffer.
+	 *
+	 * @param contentBuffer
+	 *            buffer acquired from the pool
+	 * @param bufferPool
+	 *            the pool receiving the buffer on {@link #release()}
+	 * @param fileName
+	 */
+	public FileProviderData(ByteBuffer contentBuffer, BufferPool bufferPool, String fileName) {
+		this.contentBuffer = contentBuffer;
+		this.bufferPool = bufferPool;
+		this.contentLength = contentBuffer.remaining();
+		this.fileName = fileName;
+	}
+
+	/**
+	 * Creates file data referring to the first <code>contentLength</code> bytes
+	 * of a source file. The content is not loaded into memory. It is transferred
+	 * directly from the source channel when the file is written.
+	 *
+	 * @param sourceChannel
+	 *            opened channel of the source file
+	 * @param contentLength
+	 * @param fileName
+	 */
+	public FileProviderData(FileChannel sourceChannel, long contentLength, String fileName) {
+		this.sourceChannel = sourceChannel;
+		this.contentLength = contentLength;
+		this.fileName = fileName;
+	}
+
+	/**
+	 * Creates file data streamed from the channel. The content is read only
+	 * once, when the file is written.
+	 *
+	 * @param contentStream
+	 *            channel producing exactly <code>contentLength</code> bytes
+	 * @param contentLength
+	 * @param fileName
+	 */
+	public FileProviderData(ReadableByteChannel contentStream, long contentLength, String fileName) {
+		this.contentStream = contentStream;
+		this.contentLength = contentLength;
 		this.fileName = fileName;
 	}
 
 	/**
-	 * @return file content
+	 * @return file content or null if the data refers to a source file or is
+	 *         streamed. Content held in a buffer is copied into a new array.
 	 */
 	public byte[] getFileContent() {
+		if (fileContent == null && contentBuffer != null) {
+			byte[] copy = new byte[contentBuffer.remaining()];
+			contentBuffer.duplicate().get(copy);
+			return copy;
+		}
 		return fileContent;
 	}
 
+	/**
+	 * @return view of the content, independent of other views, or null if the
+	 *         data refers to a source file or is streamed
+	 */
+	public ByteBuffer getContentBuffer() {
+		if (contentBuffer != null) {
+			return contentBuffer.duplicate();
+		}
+		if (fileContent != null) {
+			return ByteBuffer.wrap(fileContent);
+		}
+		return null;
+	}
+
+	/**
+	 * @return channel of the source file or null if the content is in memory
+	 */
+	public FileChannel getSourceChannel() {
+		return sourceChannel;
+	}
+
+	/**
+	 * @return channel streaming the content or null if the content is in memory
+	 *         or in a source file
+	 */
+	public ReadableByteChannel getContentStream() {
+		return contentStream;
+	}
+
+	/**
+	 * Writes the streamed content to the target chunk by chunk.
+	 *
+	 * @param target
+	 * @return count of the written bytes
+	 * @throws IOException
+	 *             when the stream ends before the length of the content
+	 */
+	public long transferStream(WritableByteChannel target) throws IOException {
+		ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(STREAM_CHUNK_SIZE, Math.max(contentLength, 1)));
+		long position = 0;
+		while (position < contentLength) {
+			chunk.clear();
+			chunk.limit((int) Math.min(chunk.capacity(), contentLength - position));
+			readChunk(chunk);
+			chunk.flip();
+			while (chunk.hasRemaining()) {
+				position += target.write(chunk);
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Fills the chunk from the stream up to its limit.
+	 *
+	 * @param chunk
+	 * @throws IOException
+	 *             when the stream ends before the limit of the chunk
+	 */
+	public void readChunk(ByteBuffer chunk) throws IOException {
+		while (chunk.hasRemaining()) {
+			int read = contentStream.read(chunk);
+			if (read < 0) {
+				throw new IOException("Stream of " + fileName + " ended after " + streamed + " bytes.");
+			}
+			streamed += read;
+		}
+	}
+
+	/**
+	 * @return length of the content in bytes
+	 */
+	public long getContentLength() {
+		return contentLength;
+	}
+
 	/**
 	 * @return file name
 	 */
 	public String getFileName() {
 		return fileName;
 	}
+
+	/**
+	 * @return intended emission time of the file in {@link System#nanoTime()}
+	 *         units, valid only if {@link #isScheduled()}
+	 */
+	public long getScheduledTime() {
+		return scheduledTime;
+	}
+
+	/**
+	 * @param scheduledTime
+	 *            intended emission time of the file in {@link System#nanoTime()}
+	 *            units
+	 */
+	public void setScheduledTime(long scheduledTime) {
+		this.scheduledTime = scheduledTime;
+		this.scheduled = true;
+	}
+
+	/**
+	 * @return true if the intended emission time of the file is known
+	 */
+	public boolean isScheduled() {
+		return scheduled;
+	}
+
+	/**
+	 * @return how the file gets its size on the disk. Content allocated other
+	 *         than WRITE consists of zeros and does not need to be read.
+	 */
+	public FileProviderAllocationModes getAllocationMode() {
+		return allocationMode;
+	}
+
+	/**
+	 * @param allocationMode
+	 *            how the file gets its size on the disk
+	 */
+	public void setAllocationMode(FileProviderAllocationModes allocationMode) {
+		this.allocationMode = allocationMode;
+	}
+
+	/**
+	 * Gives a pooled buffer back to its pool and closes a stream. Calling it
+	 * more than once or for data without a pooled buffer or stream has no
+	 * effect.
+	 */
+	public void release() {
+		if (bufferPool != null && RELEASED.compareAndSet(this, 0, 1)) {
+			bufferPool.release(contentBuffer);
+		} else if (contentStream != null && RELEASED.compareAndSet(this, 0, 1)) {
+			try {
+				contentStream.close();
+			} catch (IOException e) {
+				// nothing is left to read
+			}
+		}
+	}
 }
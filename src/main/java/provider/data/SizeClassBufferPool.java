@@ -0,0 +1,86 @@
+package provider.data;
+
+/**
+ * {@link BufferPool}s for files of different sizes. The sizes are grouped in
+ * classes of powers of two, each class has its own pool of buffers of the
+ * upper size of the class. The largest class is cut to the maximum size. A
+ * file takes a buffer of the smallest class it fits in, so at most half of a
+ * buffer is left unused. The buffers of each class are allocated lazily, a
+ * class no file falls into allocates nothing.
+ *
+ * @author Ivan Ivanov
+ */
+public class SizeClassBufferPool {
+
+	private final BufferPool[] pools;
+	private final int firstShift;
+
+	/**
+	 * A single class with the given pool.
+	 *
+	 * @param bufferPool
+	 *            pool of the buffers of all files
+	 */
+	public SizeClassBufferPool(BufferPool bufferPool) {
+		this.pools = new BufferPool[] { bufferPool };
+		this.firstShift = shiftOf(bufferPool.getBufferSize());
+	}
+
+	/**
+	 * @param minSize
+	 *            smallest size of the files in bytes
+	 * @param maxSize
+	 *            largest size of the files in bytes
+	 * @param maxBuffersPerClass
+	 *            maximum count of buffers of each class
+	 * @param direct
+	 *            allocate off-heap direct buffers
+	 */
+	public SizeClassBufferPool(int minSize, int maxSize, int maxBuffersPerClass, boolean direct) {
+		this.firstShift = shiftOf(minSize);
+		int count = Math.max(1, shiftOf(maxSize) - this.firstShift + 1);
+		this.pools = new BufferPool[count];
+		for (int i = 0; i < count; i++) {
+			int bufferSize = (int) Math.min(1L << (this.firstShift + i), maxSize);
+			this.pools[i] = new BufferPool(bufferSize, maxBuffersPerClass, direct);
+		}
+	}
+
+	/**
+	 * @param size
+	 *            size of the file in bytes
+	 * @return pool of the smallest class the size fits in
+	 */
+	public BufferPool poolOf(int size) {
+		int index = shiftOf(size) - this.firstShift;
+		if (index <= 0) {
+			return this.pools[0];
+		}
+		return this.pools[Math.min(index, this.pools.length - 1)];
+	}
+
+	/**
+	 * @return count of the size classes
+	 */
+	public int getClassCount() {
+		return this.pools.length;
+	}
+
+	/**
+	 * @return count of the allocated buffers of all classes
+	 */
+	public int getAllocated() {
+		int allocated = 0;
+		for (BufferPool pool : this.pools) {
+			allocated += pool.getAllocated();
+		}
+		return allocated;
+	}
+
+	/**
+	 * @return exponent of the smallest power of two not smaller than the size
+	 */
+	private static int shiftOf(int size) {
+		return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+	}
+}
@@ -2,30 +2,41 @@ package provider.example;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 
+import provider.TemplatingContext;
 import provider.TemplatingEngine;
+import provider.VariableTemplatingEngine;
 
 /**
- * Simple {@link TemplatingEngine} implementation.
- * 
+ * Simple {@link TemplatingEngine} implementation. Supplies the variables
+ * "template", "uuid", "counter" and "timestamp". The state of each iteration
+ * is kept in its {@link TemplatingContext}, so the engine can be shared by
+ * concurrent providers without locking.
+ *
  * @author Ivan Ivanov
  */
-public class SimpleTemplatingEngine implements TemplatingEngine {
+public class SimpleTemplatingEngine implements VariableTemplatingEngine {
 
 	private static final Logger log = Logger.getLogger(SimpleTemplatingEngine.class);
 
-	private int counter = 0;
-	private List<GeneratedTamplateFile> generatedFileList;
-	private String currentUUID = "";
+	private AtomicLong counter;
+	private Queue<GeneratedTamplateFile> generatedFileList;
+	private volatile TemplatingContext currentContext;
 	private static SimpleTemplatingEngine tpengine = null;
 
 	private SimpleTemplatingEngine() {
-		this.generatedFileList = Collections.synchronizedList(new ArrayList<GeneratedTamplateFile>());
+		this.counter = new AtomicLong();
+		this.generatedFileList = new ConcurrentLinkedQueue<>();
+		this.currentContext = new TemplatingContext(0);
+		this.currentContext.setAttachment("");
 	}
 
 	/**
@@ -40,41 +51,92 @@ public class SimpleTemplatingEngine implements TemplatingEngine {
 	}
 
 	/* (non-Javadoc)
-	 * @see provider.TemplatingEngine#getReplacement()
+	 * @see provider.TemplatingEngine#initIteration(long)
 	 */
 	@Override
-	public String getReplacement() {
-		String uuid = currentUUID;
-		String xmlTag = "<uuid>" + uuid + "</uuid>";
-		return xmlTag;
+	public TemplatingContext initIteration(long iteration) {
+		TemplatingContext context = new TemplatingContext(counter.incrementAndGet());
+		context.setAttachment(randomUUID());
+		return context;
 	}
 
 	/* (non-Javadoc)
-	 * @see provider.TemplatingEngine#getFileName(java.lang.String)
+	 * @see provider.TemplatingEngine#getReplacement(provider.TemplatingContext)
+	 */
+	@Override
+	public String getReplacement(TemplatingContext context) {
+		return "<uuid>" + context.getAttachment() + "</uuid>";
+	}
+
+	/* (non-Javadoc)
+	 * @see provider.VariableTemplatingEngine#getReplacement(provider.TemplatingContext, java.lang.String)
+	 */
+	@Override
+	public String getReplacement(TemplatingContext context, String variableName) {
+		switch (variableName) {
+			case "template":
+				return getReplacement(context);
+			case "uuid":
+				return (String) context.getAttachment();
+			case "counter":
+				return String.valueOf(context.getIteration());
+			case "timestamp":
+				return LocalDateTime.now().toString();
+			default:
+				return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see provider.TemplatingEngine#getFileName(provider.TemplatingContext, java.lang.String)
 	 */
 	@Override
-	public synchronized String getFileName(String initialFileName) {
-		String generatedFileName = this.counter + "-" + initialFileName;
+	public String getFileName(TemplatingContext context, String initialFileName) {
+		String generatedFileName = context.getIteration() + "-" + initialFileName;
 		String timestamp = LocalDateTime.now().toString();
-		GeneratedTamplateFile gf = new GeneratedTamplateFile(generatedFileName, timestamp, currentUUID);
+		GeneratedTamplateFile gf = new GeneratedTamplateFile(generatedFileName, timestamp,
+				(String) context.getAttachment());
 		this.generatedFileList.add(gf);
 		return generatedFileName;
 	}
 
+	/* (non-Javadoc)
+	 * @see provider.TemplatingEngine#getReplacement()
+	 */
+	@Override
+	public String getReplacement() {
+		return getReplacement(currentContext);
+	}
+
+	/* (non-Javadoc)
+	 * @see provider.VariableTemplatingEngine#getReplacement(java.lang.String)
+	 */
+	@Override
+	public String getReplacement(String variableName) {
+		return getReplacement(currentContext, variableName);
+	}
+
+	/* (non-Javadoc)
+	 * @see provider.TemplatingEngine#getFileName(java.lang.String)
+	 */
+	@Override
+	public String getFileName(String initialFileName) {
+		return getFileName(currentContext, initialFileName);
+	}
+
 	/* (non-Javadoc)
 	 * @see provider.TemplatingEngine#initCurrentIteration()
 	 */
 	@Override
-	public synchronized void initCurrentIteration() {
-		counter++;
-		currentUUID = UUID.randomUUID().toString();
+	public void initCurrentIteration() {
+		currentContext = initIteration(0);
 	}
 
 	/**
 	 * @return list of generated files.
 	 */
 	public List<GeneratedTamplateFile> getFileList() {
-		return this.generatedFileList;
+		return new ArrayList<>(this.generatedFileList);
 	}
 
 	/**
@@ -102,4 +164,16 @@ public class SimpleTemplatingEngine implements TemplatingEngine {
 		}
 		return true;
 	}
+
+	/**
+	 * Random version 4 UUID. Uses {@link ThreadLocalRandom} instead of the shared
+	 * secure random of {@link UUID#randomUUID()}, so concurrent iterations do not
+	 * contend.
+	 */
+	private static String randomUUID() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long mostSigBits = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+		long leastSigBits = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+		return new UUID(mostSigBits, leastSigBits).toString();
+	}
 }
@@ -10,7 +10,7 @@ public class FileProviderPropertiesValidationException extends RuntimeException
 	private static final long serialVersionUID = -4238425344297813012L;
 	
 	/* Exception messages */
-	public static final String EXCEPTION_WRONG_PROVIDER = "Provider type property is either wrong or missing. Providers: QUICK_FILE_PROVIDER, STATIC_FILE_PROVIDER, QUICK_FILE_PROVIDER and TEMPLATE_FILE_PROVIDER.";
+	public static final String EXCEPTION_WRONG_PROVIDER = "Provider type property is either wrong or missing. Providers: QUICK_FILE_PROVIDER, STATIC_FILE_PROVIDER, QUICK_FILE_PROVIDER, TEMPLATE_FILE_PROVIDER and MIX_FILE_PROVIDER.";
 	
 	public static final String EXCEPTION_WRONG_FILE_SIZE = "File size property is wrong. It must be a numeric value";
 	public static final String EXCEPTION_FILE_SIZE_MISSING = "File size property is empty.";
@@ -29,6 +29,102 @@ public class FileProviderPropertiesValidationException extends RuntimeException
 	public static final String EXCEPTION_WRONG_MODE = "Provider mode can be either: STATIC or DYNAMIC.";
 
 	public static final String EXCEPTION_MODE_MISSING = "Provider mode property is missing.";
+
+	public static final String WRONG_WRITER_THREADS = "Writer thread count must be a positive numeric value.";
+
+	public static final String WRONG_WRITER_QUEUE_SIZE = "Writer queue size must be a positive numeric value.";
+
+	public static final String WRONG_RATE = "Rate must be a positive numeric value.";
+
+	public static final String WRONG_RATE_BURST = "Rate burst must be a positive numeric value.";
+
+	public static final String WRONG_STATIC_ZERO_COPY = "Static zero copy property can be either: true or false.";
+
+	public static final String EXCEPTION_WRONG_OUTPUT_MODE = "Output mode can be either: FILES, SEGMENT, ASYNC, TAR, ZIP, NULL or TCP.";
+
+	public static final String WRONG_OUTPUT_SEGMENT_SIZE = "Output segment size must be a positive numeric value.";
+
+	public static final String WRONG_ASYNC_MAX_IN_FLIGHT = "Asynchronous writes in flight must be a positive numeric value.";
+
+	public static final String WRONG_ASYNC_IO_THREADS = "Asynchronous I/O threads must be a positive numeric value.";
+
+	public static final String EXCEPTION_WRONG_RANDOM_GENERATOR = "Random generator can be either: JDK, XORSHIFT or POOL.";
+
+	public static final String WRONG_RANDOM_SEED = "Random seed must have numeric value.";
+
+	public static final String WRONG_RANDOM_POOL_SIZE = "Random pool size must be a positive numeric value.";
+
+	public static final String WRONG_BUFFER_POOL_SIZE = "Buffer pool size must be a positive numeric value.";
+
+	public static final String WRONG_BUFFER_DIRECT = "Buffer direct property can be either: true or false.";
+
+	public static final String WRONG_METRICS_JMX = "Metrics JMX property can be either: true or false.";
+
+	public static final String WRONG_JOURNAL_ENABLED = "Journal enabled property can be either: true or false.";
+
+	public static final String EXCEPTION_WRONG_OVERLOAD_POLICY = "Overload policy can be either: DROP, BUFFER, LATEST or FAIL.";
+
+	public static final String WRONG_OVERLOAD_BUFFER_SIZE = "Overload buffer size must be a positive numeric value.";
+
+	public static final String WRONG_REPORT_ENABLED = "Report enabled property can be either: true or false.";
+
+	public static final String EXCEPTION_WRONG_DURABILITY_MODE = "Durability mode can be either: NONE, GROUP or FILE.";
+
+	public static final String WRONG_DURABILITY_GROUP_FILES = "Durability group files must be a positive numeric value.";
+
+	public static final String WRONG_DURABILITY_GROUP_MILLIS = "Durability group millis must be a positive numeric value.";
+
+	public static final String EXCEPTION_WRONG_SHARDING_STRATEGY = "Sharding strategy can be either: NONE, HASH or TIME.";
+
+	public static final String WRONG_SHARDING_FANOUT = "Sharding fanout must be a positive numeric value.";
+
+	public static final String WRONG_SHARDING_TIME_BUCKET = "Sharding time bucket must be a positive numeric value.";
+
+	public static final String EXCEPTION_WRONG_SINK_CLASS = "Sink class must implement provider.sink.FileSink and have a public constructor without parameters.";
+
+	public static final String WRONG_SINK_BATCH_SIZE = "Sink batch size must be a positive numeric value.";
+
+	public static final String WRONG_GENERATION_BATCH_SIZE = "Generation batch size must be a positive numeric value.";
+
+	public static final String EXCEPTION_GENERATION_BATCH_EXCEEDS_BUFFER_POOL = "Generation batch size must not exceed the buffer pool size, a batch holds a buffer for each of its files.";
+
+	public static final String WRONG_SINK_TCP_PORT = "Sink TCP port must be a numeric value between 1 and 65535.";
+
+	public static final String EXCEPTION_WRONG_EXECUTION_MODE = "Execution mode can be either: RX or VIRTUAL_THREADS.";
+
+	public static final String WRONG_VIRTUAL_THREADS_CONCURRENCY = "Virtual threads concurrency must be a positive numeric value.";
+
+	public static final String WRONG_COORDINATOR_BUDGET = "Coordinator budget must be a positive numeric value.";
+
+	public static final String WRONG_COORDINATOR_WEIGHT = "Runner weight must be a positive numeric value.";
+
+	public static final String EXCEPTION_MIX_MISSING = "Mix provider needs at least provider.mix.0.type.";
+
+	public static final String EXCEPTION_WRONG_MIX_TYPE = "Mix provider type can be either: QUICK_FILE_PROVIDER, RANDOM_FILE_PROVIDER, STATIC_FILE_PROVIDER or TEMPLATE_FILE_PROVIDER.";
+
+	public static final String WRONG_MIX_WEIGHT = "Mix provider weight must be a positive numeric value.";
+
+	public static final String EXCEPTION_WRONG_SIZE_DISTRIBUTION = "File size distribution can be either: FIXED, UNIFORM, NORMAL, LOGNORMAL, PARETO or EMPIRICAL.";
+
+	public static final String WRONG_FILE_SIZE_MIN = "Minimum file size must be a positive numeric value.";
+
+	public static final String WRONG_FILE_SIZE_MAX = "Maximum file size must be a positive numeric value not smaller than the minimum file size.";
+
+	public static final String EXCEPTION_FILE_SIZE_MAX_MISSING = "File size distribution needs provider.file.size.max.";
+
+	public static final String WRONG_FILE_SIZE_STDDEV = "File size standard deviation must be a positive numeric value.";
+
+	public static final String WRONG_FILE_SIZE_SIGMA = "File size sigma must be a positive numeric value.";
+
+	public static final String WRONG_FILE_SIZE_ALPHA = "File size alpha must be a positive numeric value.";
+
+	public static final String EXCEPTION_SIZE_HISTOGRAM_MISSING = "EMPIRICAL file size distribution needs provider.file.size.histogram.";
+
+	public static final String WRONG_FILE_STREAM_THRESHOLD = "File stream threshold must be a positive numeric value.";
+
+	public static final String EXCEPTION_WRONG_ALLOCATION_MODE = "Allocation mode can be either: WRITE or SPARSE.";
+
+	public static final String EXCEPTION_WRONG_SIZE_HISTOGRAM = "File size histogram cannot be read. Each line must hold a size or a range of sizes and a positive weight.";
 	
 	public FileProviderPropertiesValidationException() {
 		super();
@@ -10,6 +10,8 @@ public class FileProviderRuntimeException extends RuntimeException {
 	private static final long serialVersionUID = 4025612973587951877L;
 
 	public static final String FAILED_TO_PARSE_RESULTS_EXCEPTION = "Failed to get results of the provider in 5 retries.";
+
+	public static final String BUFFER_ACQUIRE_INTERRUPTED_EXCEPTION = "Interrupted while waiting for a free buffer.";
 	
 	public FileProviderRuntimeException() {
 		super();
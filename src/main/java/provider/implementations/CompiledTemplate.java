@@ -0,0 +1,216 @@
+package provider.implementations;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import provider.data.BufferPool;
+import provider.data.FileProviderData;
+import provider.data.SizeClassBufferPool;
+
+/**
+ * Template file pre-encoded into the byte segments around its placeholders.
+ * A placeholder is a variable name in curly brackets, e.g. "{template}" or
+ * "{timestamp}". The offset table of the placeholders is built once, rendering
+ * is a single pass copying the segments and the encoded values into a pooled
+ * buffer, without building any intermediate strings. The lengths and encoded
+ * values of a render are kept in scratch arrays of the rendering thread.
+ *
+ * @author Ivan Ivanov
+ */
+final class CompiledTemplate {
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9_.\\-]+)\\}");
+	private static final byte LINE_SEPARATOR = '\n';
+
+	private final byte[][] segments;
+	private final int[] slotVariables;
+	private final String[] variables;
+	private final byte[][] placeholders;
+	private final int segmentsLength;
+	private final Charset charset;
+	private final boolean asciiCompatible;
+	private final ThreadLocal<Scratch> scratch;
+
+	private CompiledTemplate(byte[][] segments, int[] slotVariables, String[] variables, Charset charset) {
+		this.segments = segments;
+		this.slotVariables = slotVariables;
+		this.variables = variables;
+		this.placeholders = new byte[variables.length][];
+		for (int i = 0; i < variables.length; i++) {
+			this.placeholders[i] = ("{" + variables[i] + "}").getBytes(charset);
+		}
+		int length = 0;
+		for (byte[] segment : segments) {
+			length += segment.length;
+		}
+		this.segmentsLength = length;
+		this.charset = charset;
+		this.asciiCompatible = isAsciiCompatible(charset);
+		this.scratch = ThreadLocal.withInitial(() -> new Scratch(variables.length));
+	}
+
+	/**
+	 * Compiles the lines of a template. Each line is terminated by a line
+	 * separator.
+	 *
+	 * @param lines
+	 *            lines of the template file
+	 * @param isVariable
+	 *            decides which placeholder names are replaced on rendering, the
+	 *            others stay in the content as they are
+	 * @param charset
+	 *            used to encode the template and the values
+	 * @return {@link CompiledTemplate}
+	 */
+	static CompiledTemplate compile(List<String> lines, Predicate<String> isVariable, Charset charset) {
+		List<byte[]> segments = new ArrayList<>();
+		List<Integer> slotVariables = new ArrayList<>();
+		List<String> variables = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		for (String line : lines) {
+			Matcher matcher = PLACEHOLDER.matcher(line);
+			int from = 0;
+			while (matcher.find()) {
+				String name = matcher.group(1);
+				if (!isVariable.test(name)) {
+					continue;
+				}
+				current.append(line, from, matcher.start());
+				segments.add(current.toString().getBytes(charset));
+				current.setLength(0);
+				int variable = variables.indexOf(name);
+				if (variable < 0) {
+					variable = variables.size();
+					variables.add(name);
+				}
+				slotVariables.add(variable);
+				from = matcher.end();
+			}
+			current.append(line, from, line.length());
+			current.append((char) LINE_SEPARATOR);
+		}
+		segments.add(current.toString().getBytes(charset));
+
+		int[] slots = new int[slotVariables.size()];
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = slotVariables.get(i);
+		}
+		return new CompiledTemplate(segments.toArray(new byte[segments.size()][]), slots,
+				variables.toArray(new String[variables.size()]), charset);
+	}
+
+	/**
+	 * @return distinct names of the variables in order of their first occurrence
+	 */
+	String[] getVariables() {
+		return this.variables;
+	}
+
+	/**
+	 * Renders the template into a buffer of the smallest size class the
+	 * rendered file fits in.
+	 *
+	 * @param values
+	 *            value of each variable, indexed as in {@link #getVariables()}. A
+	 *            null value keeps the placeholder as it is.
+	 * @param bufferPools
+	 *            pools of the buffers, the buffer is given back on
+	 *            {@link FileProviderData#release()}
+	 * @param fileName
+	 *            name of the rendered file
+	 * @return the rendered file
+	 */
+	FileProviderData render(String[] values, SizeClassBufferPool bufferPools, String fileName) {
+		Scratch scratch = this.scratch.get();
+		int[] lengths = scratch.lengths;
+		byte[][] encoded = scratch.encoded;
+
+		// encode the values which can not be copied char by char
+		for (int i = 0; i < this.variables.length; i++) {
+			String value = values[i];
+			encoded[i] = null;
+			if (value == null) {
+				lengths[i] = this.placeholders[i].length;
+			} else if (this.asciiCompatible && isAscii(value)) {
+				lengths[i] = value.length();
+			} else {
+				encoded[i] = value.getBytes(this.charset);
+				lengths[i] = encoded[i].length;
+			}
+		}
+
+		int length = this.segmentsLength;
+		for (int slotVariable : this.slotVariables) {
+			length += lengths[slotVariable];
+		}
+
+		BufferPool bufferPool = bufferPools.poolOf(length);
+		ByteBuffer result = bufferPool.acquire();
+		for (int i = 0; i < this.segments.length; i++) {
+			result.put(this.segments[i]);
+			if (i < this.slotVariables.length) {
+				int variable = this.slotVariables[i];
+				String value = values[variable];
+				if (value == null) {
+					result.put(this.placeholders[variable]);
+				} else if (encoded[variable] != null) {
+					result.put(encoded[variable]);
+				} else {
+					for (int c = 0; c < lengths[variable]; c++) {
+						result.put((byte) value.charAt(c));
+					}
+				}
+			}
+		}
+		result.flip();
+		return new FileProviderData(result, bufferPool, fileName);
+	}
+
+	/**
+	 * Lengths and encoded values of the variables of a render.
+	 */
+	private static final class Scratch {
+		private final int[] lengths;
+		private final byte[][] encoded;
+
+		Scratch(int variables) {
+			this.lengths = new int[variables];
+			this.encoded = new byte[variables][];
+		}
+	}
+
+	private static boolean isAscii(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the charset encodes each ASCII character as the single byte
+	 *         of its code
+	 */
+	private static boolean isAsciiCompatible(Charset charset) {
+		char[] ascii = new char[0x80];
+		for (int i = 0; i < ascii.length; i++) {
+			ascii[i] = (char) i;
+		}
+		byte[] encoded = new String(ascii).getBytes(charset);
+		if (encoded.length != ascii.length) {
+			return false;
+		}
+		for (int i = 0; i < encoded.length; i++) {
+			if (encoded[i] != i) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
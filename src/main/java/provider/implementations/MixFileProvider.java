@@ -0,0 +1,157 @@
+package provider.implementations;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import provider.FileProvider;
+import provider.data.FileProviderData;
+import provider.random.AliasTable;
+import provider.random.PayloadGenerator;
+import provider.random.XorShiftPayloadGenerator;
+
+/**
+ * Implementation of {@link FileProvider}.
+ * Draws each file from one of several providers by weight, e.g. 70% small
+ * templated files, 25% static fixtures and 5% large random files. The provider
+ * is chosen with an {@link AliasTable}, so the choice costs a single random
+ * value and allocates nothing. The same seed gives the same sequence of
+ * providers. The arrays splitting a batch among the providers are scratch
+ * arrays of the generating thread, sized for the generation batch at
+ * construction and reused by every batch.
+ *
+ * @author Ivan Ivanov
+ */
+public class MixFileProvider implements FileProvider {
+
+	private FileProvider[] fileProviders;
+	private AliasTable aliasTable;
+	private PayloadGenerator random;
+	private ThreadLocal<Scratch> scratch;
+
+	/**
+	 * @param fileProviders
+	 *            providers of the mix
+	 * @param weights
+	 *            positive weight of each provider
+	 * @param seed
+	 *            seed of the choice of the providers
+	 */
+	public MixFileProvider(FileProvider[] fileProviders, double[] weights, long seed) {
+		this(fileProviders, weights, seed, 1);
+	}
+
+	/**
+	 * @param fileProviders
+	 *            providers of the mix
+	 * @param weights
+	 *            positive weight of each provider
+	 * @param seed
+	 *            seed of the choice of the providers
+	 * @param batchSize
+	 *            count of files of a generation batch, larger batches grow the
+	 *            scratch arrays once
+	 */
+	public MixFileProvider(FileProvider[] fileProviders, double[] weights, long seed, int batchSize) {
+		this.fileProviders = fileProviders;
+		this.aliasTable = new AliasTable(weights);
+		this.random = new XorShiftPayloadGenerator(seed);
+		this.scratch = ThreadLocal.withInitial(() -> new Scratch(fileProviders.length, batchSize));
+	}
+
+	/**
+	 * @see provider.FileProvider#getFileData()
+	 */
+	public FileProviderData getFileData() {
+		return fileProviders[aliasTable.sample(random.nextLong())].getFileData();
+	}
+
+	/**
+	 * Chooses the provider of each file first and lets each chosen provider
+	 * fill all its files at once. The files keep the order of the choice.
+	 *
+	 * @see provider.FileProvider#fill(provider.data.FileProviderData[])
+	 */
+	@Override
+	public int fill(FileProviderData[] batch) {
+		Scratch scratch = this.scratch.get();
+		if (scratch.chosen.length < batch.length) {
+			scratch = new Scratch(fileProviders.length, batch.length);
+			this.scratch.set(scratch);
+		}
+		int[] chosen = scratch.chosen;
+		int[] counts = scratch.counts;
+		int[] filled = scratch.filled;
+		int[] taken = scratch.taken;
+		Arrays.fill(counts, 0);
+		Arrays.fill(filled, 0);
+		Arrays.fill(taken, 0);
+		for (int i = 0; i < batch.length; i++) {
+			chosen[i] = aliasTable.sample(random.nextLong());
+			counts[chosen[i]]++;
+		}
+		for (int p = 0; p < fileProviders.length; p++) {
+			if (counts[p] > 0) {
+				filled[p] = fileProviders[p].fill(scratch.part(p, counts[p]));
+			}
+		}
+		int count = 0;
+		for (int i = 0; i < batch.length; i++) {
+			int p = chosen[i];
+			if (taken[p] < filled[p]) {
+				FileProviderData[] part = scratch.parts[p][counts[p]];
+				batch[count++] = part[taken[p]];
+				part[taken[p]++] = null;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @see provider.FileProvider#prepareFileData()
+	 */
+	@Override
+	public void prepareFileData() throws IOException {
+		for (FileProvider fileProvider : fileProviders) {
+			fileProvider.prepareFileData();
+		}
+	}
+
+	/**
+	 * @see provider.FileProvider#releaseFileData()
+	 */
+	@Override
+	public void releaseFileData() throws IOException {
+		for (FileProvider fileProvider : fileProviders) {
+			fileProvider.releaseFileData();
+		}
+	}
+
+	/**
+	 * Arrays splitting a batch among the providers. A provider fills an array
+	 * of exactly its count of files, one is kept for each count.
+	 */
+	private static final class Scratch {
+		private final int[] chosen;
+		private final int[] counts;
+		private final int[] filled;
+		private final int[] taken;
+		private final FileProviderData[][][] parts;
+
+		Scratch(int providers, int batchSize) {
+			this.chosen = new int[batchSize];
+			this.counts = new int[providers];
+			this.filled = new int[providers];
+			this.taken = new int[providers];
+			this.parts = new FileProviderData[providers][batchSize + 1][];
+		}
+
+		FileProviderData[] part(int provider, int count) {
+			FileProviderData[] part = this.parts[provider][count];
+			if (part == null) {
+				part = new FileProviderData[count];
+				this.parts[provider][count] = part;
+			}
+			return part;
+		}
+	}
+}
@@ -1,34 +1,122 @@
 package provider.implementations;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.nio.ByteBuffer;
 
 import provider.FileProvider;
+import provider.FileProviderAllocationModes;
 import provider.data.FileProviderData;
+import provider.random.FileNameGenerator;
+import provider.random.PayloadChannel;
+import provider.random.SizeDistribution;
 
 /**
  * Implementation of {@link FileProvider}. 
  * Generates dummy files by given size, without any data.
+ * The sizes of the files may follow a {@link SizeDistribution}. All files share
+ * one empty array of the largest size, each file is a view of its size.
+ * Files larger than the stream threshold stream their zeros while they are
+ * written, so they need no memory of their size.
+ * With the SPARSE {@link FileProviderAllocationModes} every file is streamed
+ * and marked, so the sink gives it its size without writing the zeros.
  * 
  * @author Ivan Ivanov
  */
 public class QuickFileProvider implements FileProvider {
 
 	private byte[] fileData;
+	private FileNameGenerator fileNameGenerator;
+	private SizeDistribution sizeDistribution;
+	private long streamThreshold;
+	private FileProviderAllocationModes allocationMode = FileProviderAllocationModes.WRITE;
 
 	/**
 	 * @param dataSizeByte
 	 */
 	public QuickFileProvider(int dataSizeByte) {
+		this(dataSizeByte, new FileNameGenerator());
+	}
+
+	/**
+	 * @param dataSizeByte
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 */
+	public QuickFileProvider(int dataSizeByte, FileNameGenerator fileNameGenerator) {
 		fileData = new byte[dataSizeByte];
+		this.fileNameGenerator = fileNameGenerator;
+	}
+
+	/**
+	 * @param sizeDistribution
+	 *            generates the sizes of the files
+	 * @param streamThreshold
+	 *            size in bytes above which the content is streamed
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 */
+	public QuickFileProvider(SizeDistribution sizeDistribution, int streamThreshold,
+			FileNameGenerator fileNameGenerator) {
+		this(sizeDistribution.getMinSize() > streamThreshold ? 0
+				: (int) Math.min(sizeDistribution.getMaxSize(), streamThreshold), fileNameGenerator);
+		this.streamThreshold = streamThreshold;
+		if (sizeDistribution.getMinSize() < sizeDistribution.getMaxSize()
+				|| sizeDistribution.getMaxSize() > streamThreshold) {
+			this.sizeDistribution = sizeDistribution;
+		}
+	}
+
+	/**
+	 * @param sizeDistribution
+	 *            generates the sizes of the files
+	 * @param streamThreshold
+	 *            size in bytes above which the content is streamed, used by
+	 *            WRITE only
+	 * @param allocationMode
+	 *            how the files get their size on the disk
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 */
+	public QuickFileProvider(SizeDistribution sizeDistribution, int streamThreshold,
+			FileProviderAllocationModes allocationMode, FileNameGenerator fileNameGenerator) {
+		this(sizeDistribution, allocationMode == FileProviderAllocationModes.WRITE ? streamThreshold : 0,
+				fileNameGenerator);
+		this.allocationMode = allocationMode;
 	}
 
 	/**
 	 * @see provider.FileProvider#getFileData()
 	 */
 	public FileProviderData getFileData() {
-		String randomName = UUID.randomUUID().toString();
-		return new FileProviderData(fileData, randomName);
+		String randomName = fileNameGenerator.nextName();
+		return fileDataOf(randomName);
+	}
+
+	/**
+	 * Reserves the names of the whole batch at once.
+	 * 
+	 * @see provider.FileProvider#fill(provider.data.FileProviderData[])
+	 */
+	@Override
+	public int fill(FileProviderData[] batch) {
+		long firstName = fileNameGenerator.reserve(batch.length);
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = fileDataOf(fileNameGenerator.nameOf(firstName + i));
+		}
+		return batch.length;
+	}
+
+	private FileProviderData fileDataOf(String fileName) {
+		if (sizeDistribution == null) {
+			return new FileProviderData(fileData, fileName);
+		}
+		long size = sizeDistribution.nextSize();
+		if (size > streamThreshold) {
+			FileProviderData providerData = new FileProviderData(new PayloadChannel(size, null), size, fileName);
+			providerData.setAllocationMode(allocationMode);
+			return providerData;
+		}
+		return new FileProviderData(ByteBuffer.wrap(fileData, 0, (int) size), null, fileName);
 	}
 
 	/**
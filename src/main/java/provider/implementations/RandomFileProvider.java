@@ -1,38 +1,143 @@
 package provider.implementations;
 
 import java.io.IOException;
-import java.util.Random;
-import java.util.UUID;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
 
 import provider.FileProvider;
+import provider.data.BufferPool;
 import provider.data.FileProviderData;
+import provider.data.SizeClassBufferPool;
+import provider.random.FileNameGenerator;
+import provider.random.FixedSizeDistribution;
+import provider.random.PayloadChannel;
+import provider.random.PayloadGenerator;
+import provider.random.SizeDistribution;
+import provider.random.XorShiftPayloadGenerator;
 
 /**
  * Implementation of {@link FileProvider}. 
  * Generates files by given size, with random data.
+ * The data comes from a {@link PayloadGenerator}, the names from a
+ * {@link FileNameGenerator}. Seeded generators give reproducible runs.
+ * Each file gets its own buffer from a {@link BufferPool}, so the content of a
+ * file still being written is never overwritten by the next one. The buffer
+ * returns to the pool with {@link FileProviderData#release()}.
+ * The sizes of the files may follow a {@link SizeDistribution}. The buffers are
+ * then taken from the pool of the size class of each file and limited to its
+ * size, so varying sizes allocate nothing once the pools are filled.
+ * Files larger than the stream threshold are not held in buffers, their
+ * content is generated chunk by chunk while they are written. Each of them
+ * gets its own xorshift generator seeded from the payload generator.
  * 
  * @author Ivan Ivanov
  */
 public class RandomFileProvider implements FileProvider {
 
-	private byte[] fileData;
+	private SizeClassBufferPool bufferPools;
+	private SizeDistribution sizeDistribution;
+	private long streamThreshold;
+	private PayloadGenerator payloadGenerator;
+	private FileNameGenerator fileNameGenerator;
 
 	/**
+	 * The buffers of the provider are not limited, unreleased buffers are left to
+	 * the garbage collector.
+	 * 
 	 * @param dataSizeByte
 	 */
 	public RandomFileProvider(int dataSizeByte) {
-		fileData = new byte[dataSizeByte];
+		this(new BufferPool(dataSizeByte, Integer.MAX_VALUE, false),
+				new XorShiftPayloadGenerator(new SecureRandom().nextLong()), new FileNameGenerator());
 	}
 
 	/**
+	 * @param bufferPool
+	 *            provides the buffers of the files, the size of the buffers is
+	 *            the size of the files
+	 * @param payloadGenerator
+	 *            generates the content of the files
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 */
+	public RandomFileProvider(BufferPool bufferPool, PayloadGenerator payloadGenerator, FileNameGenerator fileNameGenerator) {
+		this(new SizeClassBufferPool(bufferPool), new FixedSizeDistribution(bufferPool.getBufferSize()),
+				bufferPool.getBufferSize(), payloadGenerator, fileNameGenerator);
+	}
+
+	/**
+	 * @param bufferPools
+	 *            provides the buffers of the files, covering the sizes of the
+	 *            distribution
+	 * @param sizeDistribution
+	 *            generates the sizes of the files
+	 * @param streamThreshold
+	 *            size in bytes above which the content is streamed
+	 * @param payloadGenerator
+	 *            generates the content of the files
+	 * @param fileNameGenerator
+	 *            generates the names of the files
+	 */
+	public RandomFileProvider(SizeClassBufferPool bufferPools, SizeDistribution sizeDistribution,
+			long streamThreshold, PayloadGenerator payloadGenerator, FileNameGenerator fileNameGenerator) {
+		this.bufferPools = bufferPools;
+		this.sizeDistribution = sizeDistribution;
+		this.streamThreshold = streamThreshold;
+		this.payloadGenerator = payloadGenerator;
+		this.fileNameGenerator = fileNameGenerator;
+	}
+
+	/**
+	 * Waits while all buffers of the pool are in use.
+	 * 
 	 * @see provider.FileProvider#getFileData()
 	 */
 	public FileProviderData getFileData() {
-		String randomName = UUID.randomUUID().toString();
-		Random random = new Random();
-		random.nextBytes(fileData);
+		String randomName = fileNameGenerator.nextName();
+		return nextFileData(randomName);
+	}
+
+	/**
+	 * Reserves the names of the whole batch at once. With a single size class
+	 * the buffers of the batch are taken at once too. Waits while all buffers
+	 * of the pool are in use.
+	 * 
+	 * @see provider.FileProvider#fill(provider.data.FileProviderData[])
+	 */
+	@Override
+	public int fill(FileProviderData[] batch) {
+		if (bufferPools.getClassCount() > 1 || sizeDistribution.getMaxSize() > streamThreshold) {
+			long firstName = fileNameGenerator.reserve(batch.length);
+			for (int i = 0; i < batch.length; i++) {
+				batch[i] = nextFileData(fileNameGenerator.nameOf(firstName + i));
+			}
+			return batch.length;
+		}
+		BufferPool bufferPool = bufferPools.poolOf((int) sizeDistribution.getMaxSize());
+		ByteBuffer[] buffers = new ByteBuffer[batch.length];
+		bufferPool.acquire(buffers);
+		long firstName = fileNameGenerator.reserve(batch.length);
+		for (int i = 0; i < batch.length; i++) {
+			buffers[i].limit((int) sizeDistribution.nextSize());
+			payloadGenerator.nextBytes(buffers[i]);
+			buffers[i].flip();
+			batch[i] = new FileProviderData(buffers[i], bufferPool, fileNameGenerator.nameOf(firstName + i));
+		}
+		return batch.length;
+	}
 
-		return new FileProviderData(fileData, randomName);
+	private FileProviderData nextFileData(String fileName) {
+		long size = sizeDistribution.nextSize();
+		if (size > streamThreshold) {
+			PayloadGenerator streamGenerator = new XorShiftPayloadGenerator(payloadGenerator.nextLong());
+			return new FileProviderData(new PayloadChannel(size, streamGenerator), size, fileName);
+		}
+		BufferPool bufferPool = bufferPools.poolOf((int) size);
+		ByteBuffer buffer = bufferPool.acquire();
+		buffer.limit((int) size);
+		payloadGenerator.nextBytes(buffer);
+		buffer.flip();
+		return new FileProviderData(buffer, bufferPool, fileName);
 	}
 
 	/**
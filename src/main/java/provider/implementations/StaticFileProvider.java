@@ -2,8 +2,10 @@ package provider.implementations;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import org.apache.log4j.Logger;
 
@@ -13,6 +15,8 @@ import provider.data.FileProviderData;
 /**
  * Implementation of {@link FileProvider}.
  * Uses pre-created files, used by the API by the properties file.
+ * In zero copy mode the files are not read into memory. Only their channels
+ * are kept open and the content is transferred directly when writing.
  * 
  * @author Ivan Ivanov
  */
@@ -22,13 +26,26 @@ public class StaticFileProvider implements FileProvider {
 
 	private File[] files;
 	private byte[][] fileDataBytes;
+	private FileChannel[] fileChannels;
+	private long[] fileSizes;
 	private String[] fileNames;
 	private int fileDataRingIndex;
+	private boolean zeroCopy;
 
 	/**
 	 * @param files
 	 */
 	public StaticFileProvider(File... files) {
+		this(false, files);
+	}
+
+	/**
+	 * @param zeroCopy
+	 *            keep only the channels of the files instead of their content
+	 * @param files
+	 */
+	public StaticFileProvider(boolean zeroCopy, File... files) {
+		this.zeroCopy = zeroCopy;
 		fileDataRingIndex = 0;
 		if (files[0].isDirectory()) {
 			this.files = files[0].listFiles();
@@ -36,6 +53,8 @@ public class StaticFileProvider implements FileProvider {
 			this.files = files;
 		}
 		fileDataBytes = new byte[this.files.length][];
+		fileChannels = new FileChannel[this.files.length];
+		fileSizes = new long[this.files.length];
 		fileNames = new String[this.files.length];
 	}
 
@@ -55,10 +74,32 @@ public class StaticFileProvider implements FileProvider {
 	 */
 	public FileProviderData getFileData() {
 		fileDataRingIndex %= fileDataBytes.length;
-		byte[] currentFileData = fileDataBytes[fileDataRingIndex];
-		String currentFileName = fileNames[fileDataRingIndex];
+		int index = fileDataRingIndex;
 		fileDataRingIndex++;
-		return new FileProviderData(currentFileData, currentFileName);
+		if (zeroCopy) {
+			return new FileProviderData(fileChannels[index], fileSizes[index], fileNames[index]);
+		}
+		return new FileProviderData(fileDataBytes[index], fileNames[index]);
+	}
+
+	/**
+	 * Advances the ring once for the whole batch.
+	 * 
+	 * @see provider.FileProvider#fill(provider.data.FileProviderData[])
+	 */
+	@Override
+	public int fill(FileProviderData[] batch) {
+		int count = fileDataBytes.length;
+		int index = fileDataRingIndex % count;
+		fileDataRingIndex = (index + batch.length) % count;
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = zeroCopy ? new FileProviderData(fileChannels[index], fileSizes[index], fileNames[index])
+					: new FileProviderData(fileDataBytes[index], fileNames[index]);
+			if (++index == count) {
+				index = 0;
+			}
+		}
+		return batch.length;
 	}
 
 	/**
@@ -68,9 +109,30 @@ public class StaticFileProvider implements FileProvider {
 		log.info("Prepare file data.");
 		for (int i = 0; i < files.length; i++) {
 			Path filePath = files[i].toPath();
-			log.info("Read in " + filePath);
-			fileDataBytes[i] = Files.readAllBytes(filePath);
+			if (zeroCopy) {
+				log.info("Open " + filePath);
+				fileChannels[i] = FileChannel.open(filePath, StandardOpenOption.READ);
+				fileSizes[i] = fileChannels[i].size();
+			} else {
+				log.info("Read in " + filePath);
+				fileDataBytes[i] = Files.readAllBytes(filePath);
+			}
 			fileNames[i] = files[i].getName();
 		}
 	}
+
+	/**
+	 * Closes the channels opened in zero copy mode.
+	 * 
+	 * @see provider.FileProvider#releaseFileData()
+	 */
+	@Override
+	public void releaseFileData() throws IOException {
+		for (int i = 0; i < fileChannels.length; i++) {
+			if (fileChannels[i] != null) {
+				fileChannels[i].close();
+				fileChannels[i] = null;
+			}
+		}
+	}
 }
@@ -1,35 +1,45 @@
 package provider.implementations;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
-
-import org.apache.log4j.Logger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 import provider.FileProvider;
+import provider.TemplatingContext;
 import provider.TemplatingEngine;
+import provider.VariableTemplatingEngine;
 import provider.data.FileProviderData;
+import provider.data.SizeClassBufferPool;
 
 /**
  * Implementation of {@link FileProvider}
  * Uses {@link TemplatingEngine}
+ * The files are compiled into {@link CompiledTemplate} once, so each request
+ * only copies the pre-encoded bytes and the replacements into a pooled buffer,
+ * which is given back when the file is released. With a
+ * {@link VariableTemplatingEngine} every named placeholder is replaced,
+ * otherwise only the "{template}" placeholders.
+ * The state of each request is kept in a {@link TemplatingContext}, so the
+ * provider can be called concurrently.
  * 
  * @author Ivan Ivanov
  */
 public class TemplatableFileProvider implements FileProvider {
 
-	private static final Logger log = Logger.getLogger(TemplatableFileProvider.class);
-	private static final String TEMPLATE_PLACEHOLDER = "{template}";
+	private static final String TEMPLATE_VARIABLE = "template";
+	private static final int MIN_BUFFER_SIZE = 1024;
+	private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
 
 	private TemplatingEngine templatingEngine;
 	private File[] files;
-	private int fileDataRingIndex;
-	private String[][] filesInMemory;
-	private int[] lineIndex;
+	private AtomicLong iterations;
+	private CompiledTemplate[] templates;
+	private SizeClassBufferPool bufferPools;
 
 	/**
 	 * @param templatingEngine
@@ -42,44 +52,52 @@ public class TemplatableFileProvider implements FileProvider {
 			this.files = files;
 		}
 		this.templatingEngine = templatingEngine;
-		this.filesInMemory = new String[this.files.length][];
-		this.lineIndex = new int[this.files.length];
+		this.templates = new CompiledTemplate[this.files.length];
+		this.iterations = new AtomicLong();
+		this.bufferPools = new SizeClassBufferPool(MIN_BUFFER_SIZE, MAX_BUFFER_SIZE, Integer.MAX_VALUE, false);
 	}
 
 	/**
 	 * @see provider.FileProvider#getFileData()
 	 */
 	public FileProviderData getFileData() {
+		return render(iterations.getAndIncrement());
+	}
+
+	/**
+	 * Reserves the iterations of the whole batch at once.
+	 * 
+	 * @see provider.FileProvider#fill(provider.data.FileProviderData[])
+	 */
+	@Override
+	public int fill(FileProviderData[] batch) {
+		long firstIteration = iterations.getAndAdd(batch.length);
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = render(firstIteration + i);
+		}
+		return batch.length;
+	}
+
+	private FileProviderData render(long iteration) {
 		// init templating engine for the current iteration
-		templatingEngine.initCurrentIteration();
+		TemplatingContext context = templatingEngine.initIteration(iteration);
 
 		// get current file data
-		fileDataRingIndex %= filesInMemory.length;
-		String[] currentFileData = filesInMemory[fileDataRingIndex];
+		int index = (int) (iteration % templates.length);
 
-		FileProviderData providerData = null;
-		try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-				PrintWriter outputWriter = new PrintWriter(outputStream, true)) {
-
-			for (int i = 0; i < currentFileData.length; i++) {
-				if (i == lineIndex[fileDataRingIndex]) {
-					outputWriter.append(
-							currentFileData[i].replace(TEMPLATE_PLACEHOLDER, templatingEngine.getReplacement()) + "\n");
-				} else {
-					outputWriter.append(currentFileData[i] + "\n");
-				}
+		CompiledTemplate template = templates[index];
+		String[] variables = template.getVariables();
+		String[] values = new String[variables.length];
+		if (templatingEngine instanceof VariableTemplatingEngine) {
+			VariableTemplatingEngine variableEngine = (VariableTemplatingEngine) templatingEngine;
+			for (int i = 0; i < variables.length; i++) {
+				values[i] = variableEngine.getReplacement(context, variables[i]);
 			}
-			outputWriter.flush();
-			byte[] result = outputStream.toByteArray();
-			providerData = new FileProviderData(result,
-					templatingEngine.getFileName(files[fileDataRingIndex].getName()));
-			fileDataRingIndex++;
-		} catch (IOException e) {
-			log.error("Cannot write content.", e);
+		} else if (values.length > 0) {
+			values[0] = templatingEngine.getReplacement(context);
 		}
 
-		// should not happen
-		return providerData;
+		return template.render(values, bufferPools, templatingEngine.getFileName(context, files[index].getName()));
 	}
 
 	/**
@@ -87,23 +105,21 @@ public class TemplatableFileProvider implements FileProvider {
 	 */
 	@Override
 	public void prepareFileData() throws IOException {
+		Predicate<String> isVariable = templatingEngine instanceof VariableTemplatingEngine
+				? name -> true
+				: TEMPLATE_VARIABLE::equals;
 		for (int i = 0; i < files.length; i++) {
-			ArrayList<String> lines = new ArrayList();
+			ArrayList<String> lines = new ArrayList<>();
 
 			try (BufferedReader reader = new BufferedReader(new FileReader(files[i]))) {
 				String oneLine;
-				int index = 0;
 				while ((oneLine = reader.readLine()) != null) {
 					if (oneLine.trim().length() > 0) {
-						if (oneLine.contains(TEMPLATE_PLACEHOLDER)) {
-							lineIndex[i] = index;
-						}
-						index++;
 						lines.add(oneLine);
 					}
 				}
 			}
-			filesInMemory[i] = lines.toArray(new String[lines.size()]);
+			templates[i] = CompiledTemplate.compile(lines, isVariable, Charset.defaultCharset());
 		}
 	}
 }
@@ -0,0 +1,161 @@
+package provider.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds. Values below 128 are counted
+ * exactly, larger values in log-linear buckets of 64 sub-buckets per power of
+ * two, so every recorded value is kept with a relative error below 1.6% over
+ * the whole range of long. Recording is a single atomic increment and can be
+ * done by many threads at once.
+ *
+ * @author Ivan Ivanov
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+	private static final int BUCKET_COUNT = indexOf(Long.MAX_VALUE) + 1;
+
+	private final AtomicLongArray counts;
+	private final LongAdder totalCount;
+	private final LongAdder totalValue;
+	private final LongAccumulator maxValue;
+
+	public LatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKET_COUNT);
+		this.totalCount = new LongAdder();
+		this.totalValue = new LongAdder();
+		this.maxValue = new LongAccumulator(Math::max, 0);
+	}
+
+	/**
+	 * @param nanos
+	 *            latency in nanoseconds, negative values are counted as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0);
+		this.counts.incrementAndGet(indexOf(value));
+		this.totalCount.increment();
+		this.totalValue.add(value);
+		this.maxValue.accumulate(value);
+	}
+
+	/**
+	 * Records the same latency several times with a single increment.
+	 *
+	 * @param nanos
+	 *            latency in nanoseconds, negative values are counted as 0
+	 * @param count
+	 *            how many times the latency is recorded
+	 */
+	public void record(long nanos, int count) {
+		long value = Math.max(nanos, 0);
+		this.counts.addAndGet(indexOf(value), count);
+		this.totalCount.add(count);
+		this.totalValue.add(value * count);
+		this.maxValue.accumulate(value);
+	}
+
+	/**
+	 * Adds every value recorded by the other histogram. Values recorded during
+	 * the copy may be missing.
+	 *
+	 * @param other
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			long count = other.counts.get(i);
+			if (count > 0) {
+				this.counts.addAndGet(i, count);
+			}
+		}
+		this.totalCount.add(other.totalCount.sum());
+		this.totalValue.add(other.totalValue.sum());
+		this.maxValue.accumulate(other.maxValue.get());
+	}
+
+	/**
+	 * @return count of the recorded values
+	 */
+	public long getCount() {
+		return this.totalCount.sum();
+	}
+
+	/**
+	 * @param percentile
+	 *            between 0 and 100
+	 * @return the highest value of the bucket containing the percentile, 0 if
+	 *         nothing is recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		return this.valuesAt(this.copyCounts(), percentile)[0];
+	}
+
+	/**
+	 * Copies the current state. Values recorded during the copy may be missing.
+	 *
+	 * @return {@link LatencySnapshot}
+	 */
+	public LatencySnapshot snapshot() {
+		long[] copy = this.copyCounts();
+		long[] values = this.valuesAt(copy, 50, 90, 99, 99.9);
+		long count = sum(copy);
+		return new LatencySnapshot(count, count == 0 ? 0 : this.totalValue.sum() / count, values[0], values[1],
+				values[2], values[3], this.maxValue.get());
+	}
+
+	private long[] copyCounts() {
+		long[] copy = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			copy[i] = this.counts.get(i);
+		}
+		return copy;
+	}
+
+	private long[] valuesAt(long[] copy, double... percentiles) {
+		long count = sum(copy);
+		long[] values = new long[percentiles.length];
+		for (int p = 0; p < percentiles.length; p++) {
+			long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentiles[p], 100) / 100.0));
+			long seen = 0;
+			for (int i = 0; i < BUCKET_COUNT && count > 0; i++) {
+				seen += copy[i];
+				if (seen >= rank) {
+					values[p] = Math.min(highestValueOf(i), this.maxValue.get());
+					break;
+				}
+			}
+		}
+		return values;
+	}
+
+	private static long sum(long[] copy) {
+		long count = 0;
+		for (long c : copy) {
+			count += c;
+		}
+		return count;
+	}
+
+	private static int indexOf(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+	}
+
+	private static long highestValueOf(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long subBucket = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+		long next = (subBucket + 1) << shift;
+		return next < 0 ? Long.MAX_VALUE : next - 1;
+	}
+}
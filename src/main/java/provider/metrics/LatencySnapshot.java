@@ -0,0 +1,100 @@
+package provider.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Percentiles of a {@link LatencyHistogram} at a point in time. All values are
+ * in nanoseconds.
+ *
+ * @author Ivan Ivanov
+ */
+public class LatencySnapshot {
+
+	private final long count;
+	private final long mean;
+	private final long p50;
+	private final long p90;
+	private final long p99;
+	private final long p999;
+	private final long max;
+
+	/**
+	 * @param count
+	 * @param mean
+	 * @param p50
+	 * @param p90
+	 * @param p99
+	 * @param p999
+	 * @param max
+	 */
+	@ConstructorProperties({ "count", "mean", "p50", "p90", "p99", "p999", "max" })
+	public LatencySnapshot(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+		this.count = count;
+		this.mean = mean;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+		this.p999 = p999;
+		this.max = max;
+	}
+
+	/**
+	 * @return count of the recorded values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return mean latency
+	 */
+	public long getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return median latency
+	 */
+	public long getP50() {
+		return p50;
+	}
+
+	/**
+	 * @return 90th percentile
+	 */
+	public long getP90() {
+		return p90;
+	}
+
+	/**
+	 * @return 99th percentile
+	 */
+	public long getP99() {
+		return p99;
+	}
+
+	/**
+	 * @return 99.9th percentile
+	 */
+	public long getP999() {
+		return p999;
+	}
+
+	/**
+	 * @return highest recorded latency
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + count + ", mean=" + micros(mean) + ", p50=" + micros(p50) + ", p90=" + micros(p90) + ", p99="
+				+ micros(p99) + ", p99.9=" + micros(p999) + ", max=" + micros(max) + " us";
+	}
+
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+}
@@ -0,0 +1,159 @@
+package provider.metrics;
+
+/**
+ * Metrics of a runner at a point in time. Rates are averages since the start
+ * of the runner.
+ *
+ * @author Ivan Ivanov
+ */
+public class MetricsSnapshot {
+
+	private final long elapsedMillis;
+	private final long filesWritten;
+	private final long bytesWritten;
+	private final long writeFailures;
+	private final long emittedTicks;
+	private final long droppedTicks;
+	private final int queueDepth;
+	private final LatencySnapshot generationLatency;
+	private final LatencySnapshot writeLatency;
+	private final LatencySnapshot scheduledLatency;
+	private final LatencySnapshot syncLatency;
+
+	/**
+	 * @param elapsedMillis
+	 * @param filesWritten
+	 * @param bytesWritten
+	 * @param writeFailures
+	 * @param emittedTicks
+	 * @param droppedTicks
+	 * @param queueDepth
+	 * @param generationLatency
+	 * @param writeLatency
+	 * @param scheduledLatency
+	 * @param syncLatency
+	 */
+	public MetricsSnapshot(long elapsedMillis, long filesWritten, long bytesWritten, long writeFailures,
+			long emittedTicks, long droppedTicks, int queueDepth, LatencySnapshot generationLatency, LatencySnapshot writeLatency,
+			LatencySnapshot scheduledLatency, LatencySnapshot syncLatency) {
+		this.elapsedMillis = elapsedMillis;
+		this.filesWritten = filesWritten;
+		this.bytesWritten = bytesWritten;
+		this.writeFailures = writeFailures;
+		this.emittedTicks = emittedTicks;
+		this.droppedTicks = droppedTicks;
+		this.queueDepth = queueDepth;
+		this.generationLatency = generationLatency;
+		this.writeLatency = writeLatency;
+		this.scheduledLatency = scheduledLatency;
+		this.syncLatency = syncLatency;
+	}
+
+	/**
+	 * @return milliseconds since the start of the runner
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * @return count of the written files
+	 */
+	public long getFilesWritten() {
+		return filesWritten;
+	}
+
+	/**
+	 * @return count of the written bytes
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * @return count of the failed writes
+	 */
+	public long getWriteFailures() {
+		return writeFailures;
+	}
+
+	/**
+	 * @return count of the ticks which started the generation of a file
+	 */
+	public long getEmittedTicks() {
+		return emittedTicks;
+	}
+
+	/**
+	 * @return count of the ticks dropped because the generation was too slow
+	 */
+	public long getDroppedTicks() {
+		return droppedTicks;
+	}
+
+	/**
+	 * @return count of the files waiting for a writer
+	 */
+	public int getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * @return written files per second
+	 */
+	public double getFilesPerSecond() {
+		return perSecond(filesWritten);
+	}
+
+	/**
+	 * @return written bytes per second
+	 */
+	public double getBytesPerSecond() {
+		return perSecond(bytesWritten);
+	}
+
+	/**
+	 * @return latency of {@link provider.FileProvider#getFileData()}
+	 */
+	public LatencySnapshot getGenerationLatency() {
+		return generationLatency;
+	}
+
+	/**
+	 * @return latency of writing a file
+	 */
+	public LatencySnapshot getWriteLatency() {
+		return writeLatency;
+	}
+
+	/**
+	 * Latency from the intended emission of a file until it was written. A
+	 * stalled generation or writer delays the following files, which is
+	 * included here but not in the generation or write latency.
+	 *
+	 * @return scheduled to written latency
+	 */
+	public LatencySnapshot getScheduledLatency() {
+		return scheduledLatency;
+	}
+
+	/**
+	 * @return time spent syncing a file or a batch of files
+	 */
+	public LatencySnapshot getSyncLatency() {
+		return syncLatency;
+	}
+
+	private double perSecond(long count) {
+		return elapsedMillis == 0 ? 0 : count * 1000.0 / elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "files=" + filesWritten + ", bytes=" + bytesWritten + ", files/s=" + Math.round(getFilesPerSecond())
+				+ ", bytes/s=" + Math.round(getBytesPerSecond()) + ", failures=" + writeFailures + ", emitted ticks=" + emittedTicks + ", dropped ticks="
+				+ droppedTicks + ", queue=" + queueDepth + ", generation [" + generationLatency + "], write ["
+				+ writeLatency + "], scheduled to written [" + scheduledLatency + "]"
+				+ (syncLatency.getCount() > 0 ? ", sync [" + syncLatency + "]" : "");
+	}
+}
@@ -0,0 +1,328 @@
+package provider.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Live metrics of a {@link provider.runner.FileProviderRunner}. Counters are
+ * {@link LongAdder}s and latencies {@link LatencyHistogram}s, so the generating
+ * and writing threads record without contending. The metrics are read with
+ * {@link #snapshot()} or through JMX after {@link #register(String)}.
+ *
+ * @author Ivan Ivanov
+ */
+public class RunnerMetrics implements RunnerMetricsMXBean {
+
+	private static final Logger log = Logger.getLogger(RunnerMetrics.class);
+
+	private static final String OBJECT_NAME = "provider:type=FileProviderRunner,name=";
+
+	private final LongAdder filesWritten;
+	private final LongAdder bytesWritten;
+	private final LongAdder writeFailures;
+	private final LongAdder droppedTicks;
+	private final LongAdder emittedTicks;
+	private final LatencyHistogram generationLatency;
+	private final LatencyHistogram writeLatency;
+	private final LatencyHistogram scheduledLatency;
+	private final LatencyHistogram syncLatency;
+	private volatile IntSupplier queueDepth;
+	private volatile long startNanos;
+	private volatile long stopNanos;
+	private ObjectName objectName;
+
+	public RunnerMetrics() {
+		this.filesWritten = new LongAdder();
+		this.bytesWritten = new LongAdder();
+		this.writeFailures = new LongAdder();
+		this.droppedTicks = new LongAdder();
+		this.emittedTicks = new LongAdder();
+		this.generationLatency = new LatencyHistogram();
+		this.writeLatency = new LatencyHistogram();
+		this.scheduledLatency = new LatencyHistogram();
+		this.syncLatency = new LatencyHistogram();
+		this.queueDepth = () -> 0;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Marks the start of the run. The rates are computed from here.
+	 */
+	public void start() {
+		this.startNanos = System.nanoTime();
+		this.stopNanos = 0;
+	}
+
+	/**
+	 * Marks the end of the run. The rates stay at their final values.
+	 */
+	public void stop() {
+		this.stopNanos = System.nanoTime();
+	}
+
+	/**
+	 * @param queueDepth
+	 *            supplies the count of the files waiting for a writer
+	 */
+	public void setQueueDepth(IntSupplier queueDepth) {
+		this.queueDepth = queueDepth;
+	}
+
+	/**
+	 * @param nanos
+	 *            time spent generating a file
+	 */
+	public void recordGeneration(long nanos) {
+		this.generationLatency.record(nanos);
+	}
+
+	/**
+	 * Records the average generation time of each file of a batch.
+	 *
+	 * @param files
+	 *            count of the generated files
+	 * @param nanos
+	 *            time spent generating the batch
+	 */
+	public void recordGeneration(int files, long nanos) {
+		if (files > 0) {
+			this.generationLatency.record(nanos / files, files);
+		}
+	}
+
+	/**
+	 * @param bytes
+	 *            size of the written file
+	 * @param nanos
+	 *            time spent writing the file
+	 */
+	public void recordWrite(long bytes, long nanos) {
+		this.filesWritten.increment();
+		this.bytesWritten.add(bytes);
+		this.writeLatency.record(nanos);
+	}
+
+	/**
+	 * @param nanos
+	 *            time from the intended emission of a file until it was written
+	 */
+	public void recordScheduledLatency(long nanos) {
+		this.scheduledLatency.record(nanos);
+	}
+
+	/**
+	 * @param nanos
+	 *            time spent syncing a file or a batch of files to the disk
+	 */
+	public void recordSync(long nanos) {
+		this.syncLatency.record(nanos);
+	}
+
+	public void recordWriteFailure() {
+		this.writeFailures.increment();
+	}
+
+	public void recordDroppedTick() {
+		this.droppedTicks.increment();
+	}
+
+	/**
+	 * @param count
+	 *            count of the files of the dropped ticks
+	 */
+	public void recordDroppedTicks(int count) {
+		this.droppedTicks.add(count);
+	}
+
+	/**
+	 * Counts the files of a dropped tick and records each of them with the
+	 * scheduled latency it had when dropped, so the dropped files still show in
+	 * the latency percentiles.
+	 *
+	 * @param scheduledTimes
+	 *            intended emission time of each file of the dropped tick in
+	 *            {@link System#nanoTime()} units
+	 */
+	public void recordDroppedTicks(long[] scheduledTimes) {
+		long now = System.nanoTime();
+		this.droppedTicks.add(scheduledTimes.length);
+		for (long scheduledTime : scheduledTimes) {
+			this.scheduledLatency.record(now - scheduledTime);
+		}
+	}
+
+	public void recordEmittedTick() {
+		this.emittedTicks.increment();
+	}
+
+	/**
+	 * @param count
+	 *            count of the files of the emitted ticks
+	 */
+	public void recordEmittedTicks(int count) {
+		this.emittedTicks.add(count);
+	}
+
+	/**
+	 * @return {@link MetricsSnapshot}
+	 */
+	public MetricsSnapshot snapshot() {
+		return new MetricsSnapshot(this.getElapsedMillis(), this.filesWritten.sum(), this.bytesWritten.sum(),
+				this.writeFailures.sum(), this.emittedTicks.sum(), this.droppedTicks.sum(), this.getQueueDepth(),
+				this.generationLatency.snapshot(), this.writeLatency.snapshot(), this.scheduledLatency.snapshot(),
+				this.syncLatency.snapshot());
+	}
+
+	/**
+	 * Combines the metrics of several runners. Counts and queue depths are
+	 * summed, the latencies are merged from the histograms of all runners and
+	 * the rates are computed over the longest running of them.
+	 *
+	 * @param metrics
+	 *            metrics of the runners
+	 * @return {@link MetricsSnapshot} of all runners together
+	 */
+	public static MetricsSnapshot combine(Collection<RunnerMetrics> metrics) {
+		long elapsedMillis = 0;
+		long files = 0;
+		long bytes = 0;
+		long failures = 0;
+		long emitted = 0;
+		long dropped = 0;
+		int queue = 0;
+		LatencyHistogram generation = new LatencyHistogram();
+		LatencyHistogram write = new LatencyHistogram();
+		LatencyHistogram scheduled = new LatencyHistogram();
+		LatencyHistogram sync = new LatencyHistogram();
+		for (RunnerMetrics m : metrics) {
+			elapsedMillis = Math.max(elapsedMillis, m.getElapsedMillis());
+			files += m.filesWritten.sum();
+			bytes += m.bytesWritten.sum();
+			failures += m.writeFailures.sum();
+			emitted += m.emittedTicks.sum();
+			dropped += m.droppedTicks.sum();
+			queue += m.getQueueDepth();
+			generation.add(m.generationLatency);
+			write.add(m.writeLatency);
+			scheduled.add(m.scheduledLatency);
+			sync.add(m.syncLatency);
+		}
+		return new MetricsSnapshot(elapsedMillis, files, bytes, failures, emitted, dropped, queue,
+				generation.snapshot(), write.snapshot(), scheduled.snapshot(), sync.snapshot());
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server. Failures are logged.
+	 *
+	 * @param name
+	 *            name of the runner in the object name
+	 */
+	public synchronized void register(String name) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName on = new ObjectName(OBJECT_NAME + ObjectName.quote(name));
+			if (server.isRegistered(on)) {
+				server.unregisterMBean(on);
+			}
+			server.registerMBean(this, on);
+			this.objectName = on;
+		} catch (JMException e) {
+			log.warn("Failed to register the metrics MBean " + name, e);
+		}
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server.
+	 */
+	public synchronized void unregister() {
+		if (this.objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+		} catch (JMException e) {
+			log.warn("Failed to unregister the metrics MBean " + this.objectName, e);
+		}
+		this.objectName = null;
+	}
+
+	@Override
+	public long getElapsedMillis() {
+		long end = this.stopNanos != 0 ? this.stopNanos : System.nanoTime();
+		return TimeUnit.NANOSECONDS.toMillis(end - this.startNanos);
+	}
+
+	@Override
+	public long getFilesWritten() {
+		return this.filesWritten.sum();
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return this.bytesWritten.sum();
+	}
+
+	@Override
+	public long getWriteFailures() {
+		return this.writeFailures.sum();
+	}
+
+	@Override
+	public long getDroppedTicks() {
+		return this.droppedTicks.sum();
+	}
+
+	@Override
+	public long getEmittedTicks() {
+		return this.emittedTicks.sum();
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return this.queueDepth.getAsInt();
+	}
+
+	@Override
+	public double getFilesPerSecond() {
+		return this.perSecond(this.filesWritten.sum());
+	}
+
+	@Override
+	public double getBytesPerSecond() {
+		return this.perSecond(this.bytesWritten.sum());
+	}
+
+	@Override
+	public LatencySnapshot getGenerationLatency() {
+		return this.generationLatency.snapshot();
+	}
+
+	@Override
+	public LatencySnapshot getWriteLatency() {
+		return this.writeLatency.snapshot();
+	}
+
+	@Override
+	public LatencySnapshot getScheduledLatency() {
+		return this.scheduledLatency.snapshot();
+	}
+
+	@Override
+	public LatencySnapshot getSyncLatency() {
+		return this.syncLatency.snapshot();
+	}
+
+	private double perSecond(long count) {
+		long elapsed = this.getElapsedMillis();
+		return elapsed == 0 ? 0 : count * 1000.0 / elapsed;
+	}
+}
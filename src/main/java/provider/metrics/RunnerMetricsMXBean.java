@@ -0,0 +1,77 @@
+package provider.metrics;
+
+/**
+ * Management interface of {@link RunnerMetrics}. Registered under
+ * "provider:type=FileProviderRunner,name=&lt;name&gt;" so a run can be watched
+ * live with any JMX client.
+ *
+ * @author Ivan Ivanov
+ */
+public interface RunnerMetricsMXBean {
+
+	/**
+	 * @return milliseconds since the start of the runner
+	 */
+	long getElapsedMillis();
+
+	/**
+	 * @return count of the written files
+	 */
+	long getFilesWritten();
+
+	/**
+	 * @return count of the written bytes
+	 */
+	long getBytesWritten();
+
+	/**
+	 * @return count of the failed writes
+	 */
+	long getWriteFailures();
+
+	/**
+	 * @return count of the ticks which started the generation of a file
+	 */
+	long getEmittedTicks();
+
+	/**
+	 * @return count of the ticks dropped because the generation was too slow
+	 */
+	long getDroppedTicks();
+
+	/**
+	 * @return count of the files waiting for a writer
+	 */
+	int getQueueDepth();
+
+	/**
+	 * @return average written files per second since the start
+	 */
+	double getFilesPerSecond();
+
+	/**
+	 * @return average written bytes per second since the start
+	 */
+	double getBytesPerSecond();
+
+	/**
+	 * @return latency of the file generation in nanoseconds
+	 */
+	LatencySnapshot getGenerationLatency();
+
+	/**
+	 * @return latency of writing a file in nanoseconds
+	 */
+	LatencySnapshot getWriteLatency();
+
+	/**
+	 * @return latency from the intended emission of a file until it was
+	 *         written in nanoseconds
+	 */
+	LatencySnapshot getScheduledLatency();
+
+	/**
+	 * @return time spent syncing a file or a batch of files in nanoseconds
+	 */
+	LatencySnapshot getSyncLatency();
+}
@@ -9,10 +9,20 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Logger;
 
+import provider.FileProviderAllocationModes;
+import provider.FileProviderDurabilityModes;
+import provider.FileProviderExecutionModes;
 import provider.FileProviderModes;
+import provider.FileProviderOutputModes;
+import provider.FileProviderOverloadPolicies;
+import provider.FileProviderShardingStrategies;
 import provider.FileProviderTypes;
 import provider.exception.FileProviderException;
 import provider.exception.FileProviderPropertiesValidationException;
+import provider.random.PayloadGeneratorTypes;
+import provider.random.SizeDistributionTypes;
+import provider.sink.FileSink;
+import provider.sink.FileSinkFactory;
 
 /**
  * Defines all properties needed to build and use FileProvider
@@ -32,6 +42,80 @@ public class FileProviderProperties {
 	public static final String KEY_FILE_INTERVAL_BETWEEN_FILES = "provider.file.creation.interval";
 	public static final String KEY_PROVIDER_MODE = "provider.mode";
 	public static final String KEY_STATIC_FILES_COUNT = "provider.mode.static.files.count";
+	public static final String KEY_WRITER_THREADS = "provider.writer.threads";
+	public static final String KEY_WRITER_QUEUE_SIZE = "provider.writer.queue.size";
+	public static final String KEY_RATE_FILES_PER_SECOND = "provider.rate.files.per.second";
+	public static final String KEY_RATE_BURST = "provider.rate.burst";
+	public static final String KEY_STATIC_ZERO_COPY = "provider.static.zero.copy";
+	public static final String KEY_OUTPUT_MODE = "provider.output.mode";
+	public static final String KEY_OUTPUT_SEGMENT_SIZE = "provider.output.segment.size";
+	public static final String KEY_ASYNC_MAX_IN_FLIGHT = "provider.async.max.in.flight";
+	public static final String KEY_ASYNC_IO_THREADS = "provider.async.io.threads";
+	public static final String KEY_RANDOM_GENERATOR = "provider.random.generator";
+	public static final String KEY_RANDOM_SEED = "provider.random.seed";
+	public static final String KEY_RANDOM_POOL_SIZE = "provider.random.pool.size";
+	public static final String KEY_BUFFER_POOL_SIZE = "provider.buffer.pool.size";
+	public static final String KEY_BUFFER_DIRECT = "provider.buffer.direct";
+	public static final String KEY_METRICS_JMX = "provider.metrics.jmx";
+	public static final String KEY_METRICS_NAME = "provider.metrics.name";
+	public static final String KEY_JOURNAL_ENABLED = "provider.journal.enabled";
+	public static final String KEY_JOURNAL_DIRECTORY = "provider.journal.directory";
+	public static final String KEY_OVERLOAD_POLICY = "provider.overload.policy";
+	public static final String KEY_OVERLOAD_BUFFER_SIZE = "provider.overload.buffer.size";
+	public static final String KEY_REPORT_ENABLED = "provider.report.enabled";
+	public static final String KEY_DURABILITY_MODE = "provider.durability.mode";
+	public static final String KEY_DURABILITY_GROUP_FILES = "provider.durability.group.files";
+	public static final String KEY_DURABILITY_GROUP_MILLIS = "provider.durability.group.millis";
+	public static final String KEY_SHARDING_STRATEGY = "provider.sharding.strategy";
+	public static final String KEY_SHARDING_FANOUT = "provider.sharding.fanout";
+	public static final String KEY_SHARDING_TIME_BUCKET_SECONDS = "provider.sharding.time.bucket.seconds";
+	public static final String KEY_RUNNER_ID = "provider.runner.id";
+	public static final String KEY_SINK_CLASS = "provider.sink.class";
+	public static final String KEY_SINK_BATCH_SIZE = "provider.sink.batch.size";
+	public static final String KEY_GENERATION_BATCH_SIZE = "provider.generation.batch.size";
+	public static final String KEY_SINK_TCP_HOST = "provider.sink.tcp.host";
+	public static final String KEY_SINK_TCP_PORT = "provider.sink.tcp.port";
+	public static final String KEY_EXECUTION_MODE = "provider.execution.mode";
+	public static final String KEY_VIRTUAL_THREADS_CONCURRENCY = "provider.virtual.threads.concurrency";
+	public static final String KEY_MIX_PREFIX = "provider.mix.";
+	public static final String KEY_MIX_TYPE = ".type";
+	public static final String KEY_MIX_WEIGHT = ".weight";
+	public static final String KEY_MIX_FILE_SIZE = ".file.size";
+	public static final String KEY_MIX_FILE_DIRECTORY = ".file.read.directory";
+	public static final String KEY_FILE_SIZE_DISTRIBUTION = "provider.file.size.distribution";
+	public static final String KEY_FILE_SIZE_MIN = "provider.file.size.min";
+	public static final String KEY_FILE_SIZE_MAX = "provider.file.size.max";
+	public static final String KEY_FILE_SIZE_STDDEV = "provider.file.size.stddev";
+	public static final String KEY_FILE_SIZE_SIGMA = "provider.file.size.sigma";
+	public static final String KEY_FILE_SIZE_ALPHA = "provider.file.size.alpha";
+	public static final String KEY_FILE_SIZE_HISTOGRAM = "provider.file.size.histogram";
+	public static final String KEY_FILE_STREAM_THRESHOLD = "provider.file.stream.threshold";
+	public static final String KEY_QUICK_ALLOCATION_MODE = "provider.quick.allocation.mode";
+
+	/* Default values */
+	public static final int DEFAULT_WRITER_THREADS = 1;
+	public static final int DEFAULT_WRITER_QUEUE_SIZE = 1024;
+	public static final int DEFAULT_OUTPUT_SEGMENT_SIZE = 256 * 1024 * 1024;
+	public static final int DEFAULT_ASYNC_MAX_IN_FLIGHT = 256;
+	public static final int DEFAULT_RANDOM_POOL_SIZE = 16 * 1024 * 1024;
+	public static final int DEFAULT_BUFFER_POOL_SIZE = 64;
+	public static final String DEFAULT_JOURNAL_DIRECTORY = "target/journal";
+	public static final int DEFAULT_OVERLOAD_BUFFER_SIZE = 1024;
+	public static final int DEFAULT_DURABILITY_GROUP_FILES = 64;
+	public static final int DEFAULT_DURABILITY_GROUP_MILLIS = 10;
+	public static final int DEFAULT_SHARDING_FANOUT = 256;
+	public static final int DEFAULT_SHARDING_TIME_BUCKET_SECONDS = 60;
+	public static final int DEFAULT_SINK_BATCH_SIZE = 16;
+	public static final int DEFAULT_GENERATION_BATCH_SIZE = 1;
+	public static final String DEFAULT_SINK_TCP_HOST = "localhost";
+	public static final int DEFAULT_SINK_TCP_PORT = 9000;
+	public static final int DEFAULT_VIRTUAL_THREADS_CONCURRENCY = 1024;
+	public static final double DEFAULT_MIX_WEIGHT = 1;
+	public static final int DEFAULT_FILE_SIZE_MIN = 1;
+	public static final double DEFAULT_FILE_SIZE_SIGMA = 1.0;
+	public static final double DEFAULT_FILE_SIZE_ALPHA = 1.5;
+	public static final int DEFAULT_FILE_STREAM_THRESHOLD = 64 * 1024 * 1024;
+	private static final int MAX_PORT = 65535;
 
 	private Properties properties;
 
@@ -197,6 +281,985 @@ public class FileProviderProperties {
 		return fileC;
 	}
 
+	/**
+	 * @param writerThreads
+	 */
+	public void setWriterThreads(int writerThreads) {
+		this.getProperties().put(KEY_WRITER_THREADS, String.valueOf(writerThreads));
+	}
+
+	/**
+	 * @return count of the threads writing the files
+	 */
+	public int getWriterThreads() {
+		return getPositiveIntProperty(KEY_WRITER_THREADS, DEFAULT_WRITER_THREADS,
+				FileProviderPropertiesValidationException.WRONG_WRITER_THREADS);
+	}
+
+	/**
+	 * @param queueSize
+	 */
+	public void setWriterQueueSize(int queueSize) {
+		this.getProperties().put(KEY_WRITER_QUEUE_SIZE, String.valueOf(queueSize));
+	}
+
+	/**
+	 * @return maximum count of files waiting for a writer thread
+	 */
+	public int getWriterQueueSize() {
+		return getPositiveIntProperty(KEY_WRITER_QUEUE_SIZE, DEFAULT_WRITER_QUEUE_SIZE,
+				FileProviderPropertiesValidationException.WRONG_WRITER_QUEUE_SIZE);
+	}
+
+	/**
+	 * @param filesPerSecond
+	 */
+	public void setRateFilesPerSecond(double filesPerSecond) {
+		this.getProperties().put(KEY_RATE_FILES_PER_SECOND, String.valueOf(filesPerSecond));
+	}
+
+	/**
+	 * @return target count of files per second, 0 if the creation interval is used
+	 */
+	public double getRateFilesPerSecond() {
+		String value = this.getProperties().getProperty(KEY_RATE_FILES_PER_SECOND);
+		if (value == null || value.trim().isEmpty()) {
+			return 0;
+		}
+		double rate = 0;
+		try {
+			rate = Double.parseDouble(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.WRONG_RATE);
+		}
+		if (rate <= 0 || Double.isInfinite(rate) || Double.isNaN(rate)) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.WRONG_RATE);
+		}
+		return rate;
+	}
+
+	/**
+	 * @return true if the files are paced by rate instead of creation interval
+	 */
+	public boolean isRateDefined() {
+		return this.getRateFilesPerSecond() > 0;
+	}
+
+	/**
+	 * @param burst
+	 */
+	public void setRateBurst(int burst) {
+		this.getProperties().put(KEY_RATE_BURST, String.valueOf(burst));
+	}
+
+	/**
+	 * @return count of files which can be emitted at once to catch up with the
+	 *         rate. Defaults to the files of 10 milliseconds.
+	 */
+	public int getRateBurst() {
+		int defaultBurst = (int) Math.max(1, Math.min(Integer.MAX_VALUE, this.getRateFilesPerSecond() / 100));
+		return getPositiveIntProperty(KEY_RATE_BURST, defaultBurst,
+				FileProviderPropertiesValidationException.WRONG_RATE_BURST);
+	}
+
+	/**
+	 * @param zeroCopy
+	 */
+	public void setStaticZeroCopy(boolean zeroCopy) {
+		this.getProperties().put(KEY_STATIC_ZERO_COPY, String.valueOf(zeroCopy));
+	}
+
+	/**
+	 * @return true if the static provider transfers the files without loading
+	 *         them into memory
+	 */
+	public boolean isStaticZeroCopy() {
+		return getBooleanProperty(KEY_STATIC_ZERO_COPY, false,
+				FileProviderPropertiesValidationException.WRONG_STATIC_ZERO_COPY);
+	}
+
+	/**
+	 * @param outputMode
+	 */
+	public void setOutputMode(FileProviderOutputModes outputMode) {
+		this.getProperties().put(KEY_OUTPUT_MODE, outputMode.name());
+	}
+
+	/**
+	 * @return how the generated files are stored. Default:
+	 *         {@link FileProviderOutputModes#FILES}
+	 */
+	public FileProviderOutputModes getOutputMode() {
+		String value = this.getProperties().getProperty(KEY_OUTPUT_MODE);
+		if (value == null || value.trim().isEmpty()) {
+			return FileProviderOutputModes.FILES;
+		}
+		try {
+			return FileProviderOutputModes.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_OUTPUT_MODE);
+		}
+	}
+
+	/**
+	 * @param segmentSize
+	 */
+	public void setOutputSegmentSize(int segmentSize) {
+		this.getProperties().put(KEY_OUTPUT_SEGMENT_SIZE, String.valueOf(segmentSize));
+	}
+
+	/**
+	 * @return size of each segment file in bytes
+	 */
+	public int getOutputSegmentSize() {
+		return getPositiveIntProperty(KEY_OUTPUT_SEGMENT_SIZE, DEFAULT_OUTPUT_SEGMENT_SIZE,
+				FileProviderPropertiesValidationException.WRONG_OUTPUT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * @param maxInFlight
+	 */
+	public void setAsyncMaxInFlight(int maxInFlight) {
+		this.getProperties().put(KEY_ASYNC_MAX_IN_FLIGHT, String.valueOf(maxInFlight));
+	}
+
+	/**
+	 * @return maximum count of writes in flight with the ASYNC output mode
+	 */
+	public int getAsyncMaxInFlight() {
+		return getPositiveIntProperty(KEY_ASYNC_MAX_IN_FLIGHT, DEFAULT_ASYNC_MAX_IN_FLIGHT,
+				FileProviderPropertiesValidationException.WRONG_ASYNC_MAX_IN_FLIGHT);
+	}
+
+	/**
+	 * @param ioThreads
+	 */
+	public void setAsyncIoThreads(int ioThreads) {
+		this.getProperties().put(KEY_ASYNC_IO_THREADS, String.valueOf(ioThreads));
+	}
+
+	/**
+	 * @return count of the I/O threads of the asynchronous channels with the
+	 *         ASYNC output mode, the maximum count of writes in flight if not
+	 *         defined
+	 */
+	public int getAsyncIoThreads() {
+		return getPositiveIntProperty(KEY_ASYNC_IO_THREADS, this.getAsyncMaxInFlight(),
+				FileProviderPropertiesValidationException.WRONG_ASYNC_IO_THREADS);
+	}
+
+	/**
+	 * @param generator
+	 */
+	public void setRandomGenerator(PayloadGeneratorTypes generator) {
+		this.getProperties().put(KEY_RANDOM_GENERATOR, generator.name());
+	}
+
+	/**
+	 * @return generator of the random file content. Default:
+	 *         {@link PayloadGeneratorTypes#XORSHIFT}
+	 */
+	public PayloadGeneratorTypes getRandomGenerator() {
+		String value = this.getProperties().getProperty(KEY_RANDOM_GENERATOR);
+		if (value == null || value.trim().isEmpty()) {
+			return PayloadGeneratorTypes.XORSHIFT;
+		}
+		try {
+			return PayloadGeneratorTypes.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_RANDOM_GENERATOR);
+		}
+	}
+
+	/**
+	 * @param seed
+	 */
+	public void setRandomSeed(long seed) {
+		this.getProperties().put(KEY_RANDOM_SEED, String.valueOf(seed));
+	}
+
+	/**
+	 * @return seed of the random content and file names or null for a random seed
+	 */
+	public Long getRandomSeed() {
+		String value = this.getProperties().getProperty(KEY_RANDOM_SEED);
+		if (value == null || value.trim().isEmpty()) {
+			return null;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.WRONG_RANDOM_SEED);
+		}
+	}
+
+	/**
+	 * @param poolSize
+	 */
+	public void setRandomPoolSize(int poolSize) {
+		this.getProperties().put(KEY_RANDOM_POOL_SIZE, String.valueOf(poolSize));
+	}
+
+	/**
+	 * @return size of the pre-generated random pool in bytes
+	 */
+	public int getRandomPoolSize() {
+		return getPositiveIntProperty(KEY_RANDOM_POOL_SIZE, DEFAULT_RANDOM_POOL_SIZE,
+				FileProviderPropertiesValidationException.WRONG_RANDOM_POOL_SIZE);
+	}
+
+	/**
+	 * @param poolSize
+	 */
+	public void setBufferPoolSize(int poolSize) {
+		this.getProperties().put(KEY_BUFFER_POOL_SIZE, String.valueOf(poolSize));
+	}
+
+	/**
+	 * @return maximum count of buffers holding generated files at once
+	 */
+	public int getBufferPoolSize() {
+		return getPositiveIntProperty(KEY_BUFFER_POOL_SIZE, DEFAULT_BUFFER_POOL_SIZE,
+				FileProviderPropertiesValidationException.WRONG_BUFFER_POOL_SIZE);
+	}
+
+	/**
+	 * @param direct
+	 */
+	public void setBufferDirect(boolean direct) {
+		this.getProperties().put(KEY_BUFFER_DIRECT, String.valueOf(direct));
+	}
+
+	/**
+	 * @return true if the buffers are allocated off-heap
+	 */
+	public boolean isBufferDirect() {
+		return getBooleanProperty(KEY_BUFFER_DIRECT, true,
+				FileProviderPropertiesValidationException.WRONG_BUFFER_DIRECT);
+	}
+
+	/**
+	 * @param jmx
+	 */
+	public void setMetricsJmx(boolean jmx) {
+		this.getProperties().put(KEY_METRICS_JMX, String.valueOf(jmx));
+	}
+
+	/**
+	 * @return true if the metrics of the runner are registered as MBean
+	 */
+	public boolean isMetricsJmx() {
+		return getBooleanProperty(KEY_METRICS_JMX, true, FileProviderPropertiesValidationException.WRONG_METRICS_JMX);
+	}
+
+	/**
+	 * @param name
+	 */
+	public void setMetricsName(String name) {
+		this.getProperties().put(KEY_METRICS_NAME, name.trim());
+	}
+
+	/**
+	 * @return name of the runner in the metrics MBean or null if not defined
+	 */
+	public String getMetricsName() {
+		String name = this.getProperties().getProperty(KEY_METRICS_NAME);
+		if (name == null || name.trim().isEmpty()) {
+			return null;
+		}
+		return name.trim();
+	}
+
+	/**
+	 * @param enabled
+	 */
+	public void setJournalEnabled(boolean enabled) {
+		this.getProperties().put(KEY_JOURNAL_ENABLED, String.valueOf(enabled));
+	}
+
+	/**
+	 * @return true if a record of each written file is appended to the journal
+	 */
+	public boolean isJournalEnabled() {
+		return getBooleanProperty(KEY_JOURNAL_ENABLED, true,
+				FileProviderPropertiesValidationException.WRONG_JOURNAL_ENABLED);
+	}
+
+	/**
+	 * @param journalDirectory
+	 */
+	public void setJournalDirectory(String journalDirectory) {
+		this.getProperties().put(KEY_JOURNAL_DIRECTORY, journalDirectory.trim());
+	}
+
+	/**
+	 * @return directory of the journal files
+	 */
+	public String getJournalDirectory() {
+		String directory = this.getProperties().getProperty(KEY_JOURNAL_DIRECTORY);
+		if (directory == null || directory.trim().isEmpty()) {
+			return DEFAULT_JOURNAL_DIRECTORY;
+		}
+		return directory.trim();
+	}
+
+	/**
+	 * @param policy
+	 */
+	public void setOverloadPolicy(FileProviderOverloadPolicies policy) {
+		this.getProperties().put(KEY_OVERLOAD_POLICY, policy.name());
+	}
+
+	/**
+	 * @return {@link FileProviderOverloadPolicies}, DROP if not defined
+	 */
+	public FileProviderOverloadPolicies getOverloadPolicy() {
+		String value = this.getProperties().getProperty(KEY_OVERLOAD_POLICY);
+		if (value == null || value.trim().isEmpty()) {
+			return FileProviderOverloadPolicies.DROP;
+		}
+		try {
+			return FileProviderOverloadPolicies.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_OVERLOAD_POLICY);
+		}
+	}
+
+	/**
+	 * @param bufferSize
+	 */
+	public void setOverloadBufferSize(int bufferSize) {
+		this.getProperties().put(KEY_OVERLOAD_BUFFER_SIZE, String.valueOf(bufferSize));
+	}
+
+	/**
+	 * @return count of the ticks waiting with the BUFFER overload policy
+	 */
+	public int getOverloadBufferSize() {
+		return getPositiveIntProperty(KEY_OVERLOAD_BUFFER_SIZE, DEFAULT_OVERLOAD_BUFFER_SIZE,
+				FileProviderPropertiesValidationException.WRONG_OVERLOAD_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param enabled
+	 */
+	public void setReportEnabled(boolean enabled) {
+		this.getProperties().put(KEY_REPORT_ENABLED, String.valueOf(enabled));
+	}
+
+	/**
+	 * @return true if the planned, emitted and written files are logged every
+	 *         second in dynamic mode
+	 */
+	public boolean isReportEnabled() {
+		return getBooleanProperty(KEY_REPORT_ENABLED, true,
+				FileProviderPropertiesValidationException.WRONG_REPORT_ENABLED);
+	}
+
+	/**
+	 * @param mode
+	 */
+	public void setDurabilityMode(FileProviderDurabilityModes mode) {
+		this.getProperties().put(KEY_DURABILITY_MODE, mode.name());
+	}
+
+	/**
+	 * @return {@link FileProviderDurabilityModes}, NONE if not defined
+	 */
+	public FileProviderDurabilityModes getDurabilityMode() {
+		String value = this.getProperties().getProperty(KEY_DURABILITY_MODE);
+		if (value == null || value.trim().isEmpty()) {
+			return FileProviderDurabilityModes.NONE;
+		}
+		try {
+			return FileProviderDurabilityModes.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_DURABILITY_MODE);
+		}
+	}
+
+	/**
+	 * @param files
+	 */
+	public void setDurabilityGroupFiles(int files) {
+		this.getProperties().put(KEY_DURABILITY_GROUP_FILES, String.valueOf(files));
+	}
+
+	/**
+	 * @return maximum count of files synced together with the GROUP durability
+	 *         mode
+	 */
+	public int getDurabilityGroupFiles() {
+		return getPositiveIntProperty(KEY_DURABILITY_GROUP_FILES, DEFAULT_DURABILITY_GROUP_FILES,
+				FileProviderPropertiesValidationException.WRONG_DURABILITY_GROUP_FILES);
+	}
+
+	/**
+	 * @param millis
+	 */
+	public void setDurabilityGroupMillis(int millis) {
+		this.getProperties().put(KEY_DURABILITY_GROUP_MILLIS, String.valueOf(millis));
+	}
+
+	/**
+	 * @return maximum time in milliseconds a file waits for its sync with the
+	 *         GROUP durability mode
+	 */
+	public int getDurabilityGroupMillis() {
+		return getPositiveIntProperty(KEY_DURABILITY_GROUP_MILLIS, DEFAULT_DURABILITY_GROUP_MILLIS,
+				FileProviderPropertiesValidationException.WRONG_DURABILITY_GROUP_MILLIS);
+	}
+
+	/**
+	 * @param strategy
+	 */
+	public void setShardingStrategy(FileProviderShardingStrategies strategy) {
+		this.getProperties().put(KEY_SHARDING_STRATEGY, strategy.name());
+	}
+
+	/**
+	 * @return {@link FileProviderShardingStrategies}, NONE if not defined
+	 */
+	public FileProviderShardingStrategies getShardingStrategy() {
+		String value = this.getProperties().getProperty(KEY_SHARDING_STRATEGY);
+		if (value == null || value.trim().isEmpty()) {
+			return FileProviderShardingStrategies.NONE;
+		}
+		try {
+			return FileProviderShardingStrategies.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_SHARDING_STRATEGY);
+		}
+	}
+
+	/**
+	 * @param fanout
+	 */
+	public void setShardingFanout(int fanout) {
+		this.getProperties().put(KEY_SHARDING_FANOUT, String.valueOf(fanout));
+	}
+
+	/**
+	 * @return count of the output subdirectories
+	 */
+	public int getShardingFanout() {
+		return getPositiveIntProperty(KEY_SHARDING_FANOUT, DEFAULT_SHARDING_FANOUT,
+				FileProviderPropertiesValidationException.WRONG_SHARDING_FANOUT);
+	}
+
+	/**
+	 * @param seconds
+	 */
+	public void setShardingTimeBucketSeconds(int seconds) {
+		this.getProperties().put(KEY_SHARDING_TIME_BUCKET_SECONDS, String.valueOf(seconds));
+	}
+
+	/**
+	 * @return length of a time bucket of the TIME sharding strategy in seconds
+	 */
+	public int getShardingTimeBucketSeconds() {
+		return getPositiveIntProperty(KEY_SHARDING_TIME_BUCKET_SECONDS, DEFAULT_SHARDING_TIME_BUCKET_SECONDS,
+				FileProviderPropertiesValidationException.WRONG_SHARDING_TIME_BUCKET);
+	}
+
+	/**
+	 * @param runnerId
+	 */
+	public void setRunnerId(String runnerId) {
+		this.getProperties().put(KEY_RUNNER_ID, runnerId.trim());
+	}
+
+	/**
+	 * @return id of the runner in the file names or null if not defined
+	 */
+	public String getRunnerId() {
+		String runnerId = this.getProperties().getProperty(KEY_RUNNER_ID);
+		if (runnerId == null || runnerId.trim().isEmpty()) {
+			return null;
+		}
+		return runnerId.trim();
+	}
+
+	/**
+	 * @param sinkClass
+	 *            name of a class implementing {@link FileSink}
+	 */
+	public void setSinkClass(String sinkClass) {
+		this.getProperties().put(KEY_SINK_CLASS, sinkClass.trim());
+	}
+
+	/**
+	 * @return name of the custom {@link FileSink} class or null if the sink of
+	 *         the output mode is used
+	 */
+	public String getSinkClass() {
+		String sinkClass = this.getProperties().getProperty(KEY_SINK_CLASS);
+		if (sinkClass == null || sinkClass.trim().isEmpty()) {
+			return null;
+		}
+		return sinkClass.trim();
+	}
+
+	/**
+	 * @param batchSize
+	 */
+	public void setSinkBatchSize(int batchSize) {
+		this.getProperties().put(KEY_SINK_BATCH_SIZE, String.valueOf(batchSize));
+	}
+
+	/**
+	 * @return maximum count of files a writer thread hands to the sink at once
+	 */
+	public int getSinkBatchSize() {
+		return getPositiveIntProperty(KEY_SINK_BATCH_SIZE, DEFAULT_SINK_BATCH_SIZE,
+				FileProviderPropertiesValidationException.WRONG_SINK_BATCH_SIZE);
+	}
+
+	/**
+	 * @param batchSize
+	 */
+	public void setGenerationBatchSize(int batchSize) {
+		this.getProperties().put(KEY_GENERATION_BATCH_SIZE, String.valueOf(batchSize));
+	}
+
+	/**
+	 * @return count of files generated per tick with
+	 *         {@link provider.FileProvider#fill(provider.data.FileProviderData[])}
+	 */
+	public int getGenerationBatchSize() {
+		return getPositiveIntProperty(KEY_GENERATION_BATCH_SIZE, DEFAULT_GENERATION_BATCH_SIZE,
+				FileProviderPropertiesValidationException.WRONG_GENERATION_BATCH_SIZE);
+	}
+
+	/**
+	 * @param host
+	 */
+	public void setSinkTcpHost(String host) {
+		this.getProperties().put(KEY_SINK_TCP_HOST, host.trim());
+	}
+
+	/**
+	 * @return host receiving the files with the TCP output mode
+	 */
+	public String getSinkTcpHost() {
+		String host = this.getProperties().getProperty(KEY_SINK_TCP_HOST);
+		if (host == null || host.trim().isEmpty()) {
+			return DEFAULT_SINK_TCP_HOST;
+		}
+		return host.trim();
+	}
+
+	/**
+	 * @param port
+	 */
+	public void setSinkTcpPort(int port) {
+		this.getProperties().put(KEY_SINK_TCP_PORT, String.valueOf(port));
+	}
+
+	/**
+	 * @return port receiving the files with the TCP output mode
+	 */
+	public int getSinkTcpPort() {
+		int port = getPositiveIntProperty(KEY_SINK_TCP_PORT, DEFAULT_SINK_TCP_PORT,
+				FileProviderPropertiesValidationException.WRONG_SINK_TCP_PORT);
+		if (port > MAX_PORT) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.WRONG_SINK_TCP_PORT);
+		}
+		return port;
+	}
+
+	/**
+	 * @param executionMode
+	 */
+	public void setExecutionMode(FileProviderExecutionModes executionMode) {
+		this.getProperties().put(KEY_EXECUTION_MODE, executionMode.name());
+	}
+
+	/**
+	 * @return {@link FileProviderExecutionModes}, RX if not defined
+	 */
+	public FileProviderExecutionModes getExecutionMode() {
+		String value = this.getProperties().getProperty(KEY_EXECUTION_MODE);
+		if (value == null || value.trim().isEmpty()) {
+			return FileProviderExecutionModes.RX;
+		}
+		try {
+			return FileProviderExecutionModes.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_EXECUTION_MODE);
+		}
+	}
+
+	/**
+	 * @param concurrency
+	 */
+	public void setVirtualThreadsConcurrency(int concurrency) {
+		this.getProperties().put(KEY_VIRTUAL_THREADS_CONCURRENCY, String.valueOf(concurrency));
+	}
+
+	/**
+	 * @return maximum count of files written at the same time with the
+	 *         VIRTUAL_THREADS execution mode
+	 */
+	public int getVirtualThreadsConcurrency() {
+		return getPositiveIntProperty(KEY_VIRTUAL_THREADS_CONCURRENCY, DEFAULT_VIRTUAL_THREADS_CONCURRENCY,
+				FileProviderPropertiesValidationException.WRONG_VIRTUAL_THREADS_CONCURRENCY);
+	}
+
+	/**
+	 * Defines a provider of the mix. The providers are numbered from 0 without
+	 * gaps.
+	 * 
+	 * @param index
+	 * @param type
+	 * @param weight
+	 */
+	public void setMixProvider(int index, FileProviderTypes type, double weight) {
+		this.getProperties().put(KEY_MIX_PREFIX + index + KEY_MIX_TYPE, type.name());
+		this.getProperties().put(KEY_MIX_PREFIX + index + KEY_MIX_WEIGHT, String.valueOf(weight));
+	}
+
+	/**
+	 * @param index
+	 * @param fileSize
+	 */
+	public void setMixFileSize(int index, int fileSize) {
+		this.getProperties().put(KEY_MIX_PREFIX + index + KEY_MIX_FILE_SIZE, String.valueOf(fileSize));
+	}
+
+	/**
+	 * @param index
+	 * @param directory
+	 */
+	public void setMixFileDirectory(int index, String directory) {
+		this.getProperties().put(KEY_MIX_PREFIX + index + KEY_MIX_FILE_DIRECTORY, directory.trim());
+	}
+
+	/**
+	 * @return count of the providers of the mix, the providers are numbered
+	 *         from 0 until the first missing type
+	 */
+	public int getMixSize() {
+		int size = 0;
+		String type = this.getProperties().getProperty(KEY_MIX_PREFIX + size + KEY_MIX_TYPE);
+		while (type != null && !type.trim().isEmpty()) {
+			size++;
+			type = this.getProperties().getProperty(KEY_MIX_PREFIX + size + KEY_MIX_TYPE);
+		}
+		return size;
+	}
+
+	/**
+	 * @param index
+	 * @return {@link FileProviderTypes} of the provider of the mix
+	 */
+	public FileProviderTypes getMixType(int index) {
+		String value = this.getProperties().getProperty(KEY_MIX_PREFIX + index + KEY_MIX_TYPE);
+		FileProviderTypes type;
+		try {
+			type = FileProviderTypes.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException | NullPointerException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_MIX_TYPE);
+		}
+		if (type == FileProviderTypes.MIX_FILE_PROVIDER) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_MIX_TYPE);
+		}
+		return type;
+	}
+
+	/**
+	 * @param index
+	 * @return weight of the provider of the mix, 1 if not defined
+	 */
+	public double getMixWeight(int index) {
+		return getPositiveDoubleProperty(KEY_MIX_PREFIX + index + KEY_MIX_WEIGHT, DEFAULT_MIX_WEIGHT,
+				FileProviderPropertiesValidationException.WRONG_MIX_WEIGHT);
+	}
+
+	/**
+	 * @param index
+	 * @return size of the files of the provider of the mix, provider.file.size
+	 *         if not defined
+	 */
+	public long getMixFileSize(int index) {
+		String value = this.getProperties().getProperty(KEY_MIX_PREFIX + index + KEY_MIX_FILE_SIZE);
+		if (value == null || value.trim().isEmpty()) {
+			value = this.getProperties().getProperty(KEY_FILE_SIZE);
+		}
+		if (value == null || value.trim().isEmpty()) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_FILE_SIZE_MISSING);
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException nfe) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_FILE_SIZE);
+		}
+	}
+
+	/**
+	 * @param index
+	 * @return directory of the files of the provider of the mix, empty if not
+	 *         defined
+	 */
+	public String getMixFileDirectory(int index) {
+		String value = this.getProperties().getProperty(KEY_MIX_PREFIX + index + KEY_MIX_FILE_DIRECTORY);
+		return value == null ? "" : value.trim();
+	}
+
+	/**
+	 * @param distribution
+	 */
+	public void setSizeDistribution(SizeDistributionTypes distribution) {
+		this.getProperties().put(KEY_FILE_SIZE_DISTRIBUTION, distribution.name());
+	}
+
+	/**
+	 * @return {@link SizeDistributionTypes} of the file sizes, FIXED if not
+	 *         defined
+	 */
+	public SizeDistributionTypes getSizeDistribution() {
+		String value = this.getProperties().getProperty(KEY_FILE_SIZE_DISTRIBUTION);
+		if (value == null || value.trim().isEmpty()) {
+			return SizeDistributionTypes.FIXED;
+		}
+		try {
+			return SizeDistributionTypes.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_SIZE_DISTRIBUTION);
+		}
+	}
+
+	/**
+	 * @param minSize
+	 * @param maxSize
+	 */
+	public void setFileSizeRange(long minSize, long maxSize) {
+		this.getProperties().put(KEY_FILE_SIZE_MIN, String.valueOf(minSize));
+		this.getProperties().put(KEY_FILE_SIZE_MAX, String.valueOf(maxSize));
+	}
+
+	/**
+	 * @return smallest file size of the distribution in bytes
+	 */
+	public long getFileSizeMin() {
+		return getPositiveLongProperty(KEY_FILE_SIZE_MIN, DEFAULT_FILE_SIZE_MIN,
+				FileProviderPropertiesValidationException.WRONG_FILE_SIZE_MIN);
+	}
+
+	/**
+	 * @return largest file size of the distribution in bytes, 0 if not defined
+	 */
+	public long getFileSizeMax() {
+		return getPositiveLongProperty(KEY_FILE_SIZE_MAX, 0, FileProviderPropertiesValidationException.WRONG_FILE_SIZE_MAX);
+	}
+
+	/**
+	 * @param stddev
+	 */
+	public void setFileSizeStddev(double stddev) {
+		this.getProperties().put(KEY_FILE_SIZE_STDDEV, String.valueOf(stddev));
+	}
+
+	/**
+	 * @return standard deviation of the NORMAL distribution in bytes, 0 if not
+	 *         defined
+	 */
+	public double getFileSizeStddev() {
+		return getPositiveDoubleProperty(KEY_FILE_SIZE_STDDEV, 0,
+				FileProviderPropertiesValidationException.WRONG_FILE_SIZE_STDDEV);
+	}
+
+	/**
+	 * @param sigma
+	 */
+	public void setFileSizeSigma(double sigma) {
+		this.getProperties().put(KEY_FILE_SIZE_SIGMA, String.valueOf(sigma));
+	}
+
+	/**
+	 * @return standard deviation of the logarithm of the size of the LOGNORMAL
+	 *         distribution
+	 */
+	public double getFileSizeSigma() {
+		return getPositiveDoubleProperty(KEY_FILE_SIZE_SIGMA, DEFAULT_FILE_SIZE_SIGMA,
+				FileProviderPropertiesValidationException.WRONG_FILE_SIZE_SIGMA);
+	}
+
+	/**
+	 * @param alpha
+	 */
+	public void setFileSizeAlpha(double alpha) {
+		this.getProperties().put(KEY_FILE_SIZE_ALPHA, String.valueOf(alpha));
+	}
+
+	/**
+	 * @return shape of the tail of the PARETO distribution
+	 */
+	public double getFileSizeAlpha() {
+		return getPositiveDoubleProperty(KEY_FILE_SIZE_ALPHA, DEFAULT_FILE_SIZE_ALPHA,
+				FileProviderPropertiesValidationException.WRONG_FILE_SIZE_ALPHA);
+	}
+
+	/**
+	 * @param histogram
+	 */
+	public void setFileSizeHistogram(String histogram) {
+		this.getProperties().put(KEY_FILE_SIZE_HISTOGRAM, histogram.trim());
+	}
+
+	/**
+	 * @return path of the histogram file of the EMPIRICAL distribution, empty
+	 *         if not defined
+	 */
+	public String getFileSizeHistogram() {
+		String value = this.getProperties().getProperty(KEY_FILE_SIZE_HISTOGRAM);
+		return value == null ? "" : value.trim();
+	}
+
+	/**
+	 * @param threshold
+	 */
+	public void setFileStreamThreshold(int threshold) {
+		this.getProperties().put(KEY_FILE_STREAM_THRESHOLD, String.valueOf(threshold));
+	}
+
+	/**
+	 * @return size in bytes above which the content of RANDOM_FILE_PROVIDER and
+	 *         QUICK_FILE_PROVIDER files is streamed instead of held in memory
+	 */
+	public int getFileStreamThreshold() {
+		return getPositiveIntProperty(KEY_FILE_STREAM_THRESHOLD, DEFAULT_FILE_STREAM_THRESHOLD,
+				FileProviderPropertiesValidationException.WRONG_FILE_STREAM_THRESHOLD);
+	}
+
+	/**
+	 * @param allocationMode
+	 */
+	public void setQuickAllocationMode(FileProviderAllocationModes allocationMode) {
+		this.getProperties().put(KEY_QUICK_ALLOCATION_MODE, allocationMode.name());
+	}
+
+	/**
+	 * @return {@link FileProviderAllocationModes} of QUICK_FILE_PROVIDER files,
+	 *         WRITE if not defined
+	 */
+	public FileProviderAllocationModes getQuickAllocationMode() {
+		String value = this.getProperties().getProperty(KEY_QUICK_ALLOCATION_MODE);
+		if (value == null || value.trim().isEmpty()) {
+			return FileProviderAllocationModes.WRITE;
+		}
+		try {
+			return FileProviderAllocationModes.valueOf(value.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_ALLOCATION_MODE);
+		}
+	}
+
+	/**
+	 * Reads an optional boolean property.
+	 * 
+	 * @param key
+	 * @param defaultValue
+	 *            used when the property is missing or empty
+	 * @param exceptionMessage
+	 *            used when the property is neither true nor false
+	 * @return value of the property
+	 */
+	private boolean getBooleanProperty(String key, boolean defaultValue, String exceptionMessage) {
+		String value = this.getProperties().getProperty(key);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		if (value.trim().equalsIgnoreCase(Boolean.TRUE.toString())) {
+			return true;
+		} else if (value.trim().equalsIgnoreCase(Boolean.FALSE.toString())) {
+			return false;
+		}
+		throw new FileProviderPropertiesValidationException(exceptionMessage);
+	}
+
+	/**
+	 * Reads an optional positive numeric property.
+	 * 
+	 * @param key
+	 * @param defaultValue
+	 *            used when the property is missing or empty
+	 * @param exceptionMessage
+	 *            used when the property is not a positive number
+	 * @return value of the property
+	 */
+	private int getPositiveIntProperty(String key, int defaultValue, String exceptionMessage) {
+		String value = this.getProperties().getProperty(key);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		int result = 0;
+		try {
+			result = Integer.parseInt(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new FileProviderPropertiesValidationException(exceptionMessage);
+		}
+		if (result <= 0) {
+			throw new FileProviderPropertiesValidationException(exceptionMessage);
+		}
+		return result;
+	}
+
+	/**
+	 * Reads an optional positive numeric property, which may exceed the range
+	 * of int.
+	 * 
+	 * @param key
+	 * @param defaultValue
+	 *            used when the property is missing or empty
+	 * @param exceptionMessage
+	 *            used when the property is not a positive number
+	 * @return value of the property
+	 */
+	private long getPositiveLongProperty(String key, long defaultValue, String exceptionMessage) {
+		String value = this.getProperties().getProperty(key);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		long result = 0;
+		try {
+			result = Long.parseLong(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new FileProviderPropertiesValidationException(exceptionMessage);
+		}
+		if (result <= 0) {
+			throw new FileProviderPropertiesValidationException(exceptionMessage);
+		}
+		return result;
+	}
+
+	/**
+	 * Reads an optional positive decimal property.
+	 * 
+	 * @param key
+	 * @param defaultValue
+	 *            used when the property is missing or empty
+	 * @param exceptionMessage
+	 *            used when the property is not a positive finite number
+	 * @return value of the property
+	 */
+	private double getPositiveDoubleProperty(String key, double defaultValue, String exceptionMessage) {
+		String value = this.getProperties().getProperty(key);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		double result = 0;
+		try {
+			result = Double.parseDouble(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new FileProviderPropertiesValidationException(exceptionMessage);
+		}
+		if (!(result > 0) || Double.isInfinite(result)) {
+			throw new FileProviderPropertiesValidationException(exceptionMessage);
+		}
+		return result;
+	}
+
 	/**
 	 * Validates currently provided properties.
 	 */
@@ -205,7 +1268,8 @@ public class FileProviderProperties {
 		if (this.getProviderType().isEmpty() || (!this.getProviderType().contentEquals(FileProviderTypes.QUICK_FILE_PROVIDER.name())
 				&& !this.getProviderType().contentEquals(FileProviderTypes.STATIC_FILE_PROVIDER.name())
 				&& !this.getProviderType().contentEquals(FileProviderTypes.RANDOM_FILE_PROVIDER.name())
-				&& !this.getProviderType().contentEquals(FileProviderTypes.TEMPLATE_FILE_PROVIDER.name()))) {
+				&& !this.getProviderType().contentEquals(FileProviderTypes.TEMPLATE_FILE_PROVIDER.name())
+				&& !this.getProviderType().contentEquals(FileProviderTypes.MIX_FILE_PROVIDER.name()))) {
 			throw new FileProviderPropertiesValidationException(
 					FileProviderPropertiesValidationException.EXCEPTION_WRONG_PROVIDER);
 		}
@@ -215,7 +1279,7 @@ public class FileProviderProperties {
 		} else if (this.getProviderType().contentEquals(FileProviderTypes.QUICK_FILE_PROVIDER.name())
 				|| this.getProviderType().contentEquals(FileProviderTypes.RANDOM_FILE_PROVIDER.name())) {
 			try {
-				Integer.parseInt(this.getFileSize());
+				Long.parseLong(this.getFileSize());
 			} catch (NumberFormatException nfe) {
 				throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_FILE_SIZE);
 			}			
@@ -235,7 +1299,51 @@ public class FileProviderProperties {
 			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_STORE_DIRECTORY_DOES_NOT_EXIST);
 		}
 		
-		this.getFileCreationalInterval();
+		if (!this.isRateDefined()) {
+			this.getFileCreationalInterval();
+		}
+		this.getRateBurst();
+		this.isStaticZeroCopy();
+		this.getOutputMode();
+		this.getAsyncMaxInFlight();
+		this.getAsyncIoThreads();
+		this.getOutputSegmentSize();
+		this.getRandomGenerator();
+		this.getRandomSeed();
+		this.getRandomPoolSize();
+		this.getBufferPoolSize();
+		this.isBufferDirect();
+		this.isMetricsJmx();
+		this.isJournalEnabled();
+		this.getOverloadPolicy();
+		this.getOverloadBufferSize();
+		this.isReportEnabled();
+		this.getDurabilityMode();
+		this.getDurabilityGroupFiles();
+		this.getDurabilityGroupMillis();
+		this.getShardingStrategy();
+		this.getShardingFanout();
+		this.getShardingTimeBucketSeconds();
+		this.getSinkBatchSize();
+		this.getGenerationBatchSize();
+		this.getSinkTcpPort();
+		this.getExecutionMode();
+		this.getVirtualThreadsConcurrency();
+		this.getQuickAllocationMode();
+		if (this.getProviderType().equals(FileProviderTypes.MIX_FILE_PROVIDER.name())) {
+			this.validateMix();
+		}
+		if (this.getProviderType().equals(FileProviderTypes.QUICK_FILE_PROVIDER.name())
+				|| this.getProviderType().equals(FileProviderTypes.RANDOM_FILE_PROVIDER.name())
+				|| this.getProviderType().equals(FileProviderTypes.MIX_FILE_PROVIDER.name())) {
+			this.validateSizeDistribution();
+		}
+		if (this.usesBufferPool() && this.getGenerationBatchSize() > this.getBufferPoolSize()) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_GENERATION_BATCH_EXCEEDS_BUFFER_POOL);
+		}
+		if (this.getSinkClass() != null) {
+			FileSinkFactory.createCustomSink(this.getSinkClass());
+		}
 		
 		if (!this.getProviderMode().isEmpty() && this.getProviderMode() != null ) {
 			if (!this.getProviderMode().toUpperCase().contentEquals(FileProviderModes.DYNAMIC.name()) 
@@ -249,5 +1357,78 @@ public class FileProviderProperties {
 		if (this.getProviderMode().contentEquals(FileProviderModes.STATIC.name())) {
 			this.getStaticModeFileCount();
 		}
+
+		this.getWriterThreads();
+		this.getWriterQueueSize();
+	}
+
+	/**
+	 * Validates the providers of the mix. Files of templatable providers
+	 * without a directory are given to the factory.
+	 */
+	private void validateMix() {
+		int size = this.getMixSize();
+		if (size == 0) {
+			throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_MIX_MISSING);
+		}
+		for (int i = 0; i < size; i++) {
+			FileProviderTypes type = this.getMixType(i);
+			this.getMixWeight(i);
+			if (type == FileProviderTypes.QUICK_FILE_PROVIDER || type == FileProviderTypes.RANDOM_FILE_PROVIDER) {
+				this.getMixFileSize(i);
+			} else if (type == FileProviderTypes.STATIC_FILE_PROVIDER) {
+				String directory = this.getMixFileDirectory(i);
+				if (directory.isEmpty()) {
+					throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_DIRECTORY_MISSING);
+				} else if (!new File(directory).exists()) {
+					throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_DIRECTORY_DOES_NOT_EXIST);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true if RANDOM_FILE_PROVIDER files are generated, directly or in
+	 *         the mix
+	 */
+	private boolean usesBufferPool() {
+		if (this.getProviderType().equals(FileProviderTypes.RANDOM_FILE_PROVIDER.name())) {
+			return true;
+		}
+		if (this.getProviderType().equals(FileProviderTypes.MIX_FILE_PROVIDER.name())) {
+			for (int i = 0; i < this.getMixSize(); i++) {
+				if (this.getMixType(i) == FileProviderTypes.RANDOM_FILE_PROVIDER) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Validates the parameters of the file size distribution. The content of
+	 * the histogram is read by the factory.
+	 */
+	private void validateSizeDistribution() {
+		SizeDistributionTypes distribution = this.getSizeDistribution();
+		long minSize = this.getFileSizeMin();
+		long maxSize = this.getFileSizeMax();
+		this.getFileStreamThreshold();
+		this.getFileSizeStddev();
+		this.getFileSizeSigma();
+		this.getFileSizeAlpha();
+		if (distribution == SizeDistributionTypes.EMPIRICAL) {
+			if (this.getFileSizeHistogram().isEmpty()) {
+				throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_SIZE_HISTOGRAM_MISSING);
+			} else if (!new File(this.getFileSizeHistogram()).isFile()) {
+				throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_WRONG_SIZE_HISTOGRAM);
+			}
+		} else if (distribution != SizeDistributionTypes.FIXED) {
+			if (maxSize == 0) {
+				throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.EXCEPTION_FILE_SIZE_MAX_MISSING);
+			} else if (maxSize < minSize) {
+				throw new FileProviderPropertiesValidationException(FileProviderPropertiesValidationException.WRONG_FILE_SIZE_MAX);
+			}
+		}
 	}
 }
@@ -0,0 +1,86 @@
+package provider.random;
+
+/**
+ * Samples an index by weight in constant time with the alias method (Vose).
+ * The table is built once, each sample takes a single random long and
+ * allocates nothing. Every column holds its own index with a probability and
+ * an alias taking the rest of the column.
+ *
+ * @author Ivan Ivanov
+ */
+public class AliasTable {
+
+	private static final double SCALE = 1L << 32;
+
+	private final long[] thresholds;
+	private final int[] aliases;
+
+	/**
+	 * @param weights
+	 *            positive weights of the indexes, they do not need to sum to 1
+	 */
+	public AliasTable(double[] weights) {
+		int n = weights.length;
+		double total = 0;
+		for (double weight : weights) {
+			total += weight;
+		}
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int i = 0; i < n; i++) {
+			scaled[i] = weights[i] * n / total;
+			if (scaled[i] < 1) {
+				small[smallCount++] = i;
+			} else {
+				large[largeCount++] = i;
+			}
+		}
+		this.thresholds = new long[n];
+		this.aliases = new int[n];
+		while (smallCount > 0 && largeCount > 0) {
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+			this.thresholds[less] = (long) (scaled[less] * SCALE);
+			this.aliases[less] = more;
+			scaled[more] = scaled[more] + scaled[less] - 1;
+			if (scaled[more] < 1) {
+				small[smallCount++] = more;
+			} else {
+				large[largeCount++] = more;
+			}
+		}
+		// left overs are full columns, up to rounding errors
+		while (largeCount > 0) {
+			int full = large[--largeCount];
+			this.thresholds[full] = (long) SCALE;
+			this.aliases[full] = full;
+		}
+		while (smallCount > 0) {
+			int full = small[--smallCount];
+			this.thresholds[full] = (long) SCALE;
+			this.aliases[full] = full;
+		}
+	}
+
+	/**
+	 * @param random
+	 *            uniformly distributed random value, the upper half picks the
+	 *            column and the lower half decides between the column and its
+	 *            alias
+	 * @return the sampled index
+	 */
+	public int sample(long random) {
+		int column = (int) (((random >>> 32) * this.thresholds.length) >>> 32);
+		return (random & 0xFFFFFFFFL) < this.thresholds[column] ? column : this.aliases[column];
+	}
+
+	/**
+	 * @return count of the indexes
+	 */
+	public int size() {
+		return this.thresholds.length;
+	}
+}
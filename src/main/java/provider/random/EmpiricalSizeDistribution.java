@@ -0,0 +1,129 @@
+package provider.random;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link SizeDistribution} following a histogram of sizes, e.g. measured on a
+ * production system. Each line of the histogram file holds a size or a range
+ * of sizes and its weight:
+ *
+ * <pre>
+ * # size weight
+ * 512 10
+ * 4096-65536 75
+ * 1048576 2.5
+ * </pre>
+ *
+ * The bucket is chosen with an {@link AliasTable}, the size is uniformly
+ * distributed within the range of the bucket.
+ *
+ * @author Ivan Ivanov
+ */
+public class EmpiricalSizeDistribution extends RandomSizeDistribution {
+
+	private final long[] from;
+	private final long[] to;
+	private final AliasTable aliasTable;
+
+	/**
+	 * @param from
+	 *            smallest size of each bucket in bytes
+	 * @param to
+	 *            largest size of each bucket in bytes
+	 * @param weights
+	 *            positive weight of each bucket
+	 * @param seed
+	 *            the same seed gives the same sizes
+	 */
+	public EmpiricalSizeDistribution(long[] from, long[] to, double[] weights, long seed) {
+		super(min(from), max(to), seed);
+		this.from = from;
+		this.to = to;
+		this.aliasTable = new AliasTable(weights);
+	}
+
+	/**
+	 * Reads the histogram file.
+	 *
+	 * @param histogram
+	 *            path of the histogram file
+	 * @param seed
+	 *            the same seed gives the same sizes
+	 * @return the distribution of the histogram
+	 * @throws IOException
+	 *             when the file cannot be read
+	 * @throws NumberFormatException
+	 *             when a line is not a positive size or range with a positive
+	 *             weight, or the file has no buckets
+	 */
+	public static EmpiricalSizeDistribution read(Path histogram, long seed) throws IOException {
+		List<long[]> ranges = new ArrayList<>();
+		List<Double> weights = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(histogram, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int comment = line.indexOf('#');
+				String bucket = (comment >= 0 ? line.substring(0, comment) : line).trim();
+				if (bucket.isEmpty()) {
+					continue;
+				}
+				String[] columns = bucket.split("\\s+");
+				if (columns.length != 2) {
+					throw new NumberFormatException("Wrong histogram line: " + line);
+				}
+				int dash = columns[0].indexOf('-');
+				long low = Long.parseLong(dash > 0 ? columns[0].substring(0, dash) : columns[0]);
+				long high = dash > 0 ? Long.parseLong(columns[0].substring(dash + 1)) : low;
+				double weight = Double.parseDouble(columns[1]);
+				if (low <= 0 || high < low || !(weight > 0) || Double.isInfinite(weight)) {
+					throw new NumberFormatException("Wrong histogram line: " + line);
+				}
+				ranges.add(new long[] { low, high });
+				weights.add(weight);
+			}
+		}
+		if (ranges.isEmpty()) {
+			throw new NumberFormatException("No buckets in histogram " + histogram);
+		}
+		long[] from = new long[ranges.size()];
+		long[] to = new long[ranges.size()];
+		double[] bucketWeights = new double[ranges.size()];
+		for (int i = 0; i < from.length; i++) {
+			from[i] = ranges.get(i)[0];
+			to[i] = ranges.get(i)[1];
+			bucketWeights[i] = weights.get(i);
+		}
+		return new EmpiricalSizeDistribution(from, to, bucketWeights, seed);
+	}
+
+	/**
+	 * @see provider.random.RandomSizeDistribution#nextValue()
+	 */
+	@Override
+	protected double nextValue() {
+		int bucket = aliasTable.sample(nextLong());
+		return from[bucket] + Math.floor(nextDouble() * ((double) to[bucket] - from[bucket] + 1));
+	}
+
+	private static long min(long[] values) {
+		long min = Long.MAX_VALUE;
+		for (long value : values) {
+			min = Math.min(min, value);
+		}
+		return min;
+	}
+
+	private static long max(long[] values) {
+		long max = 0;
+		for (long value : values) {
+			max = Math.max(max, value);
+		}
+		return max;
+	}
+}
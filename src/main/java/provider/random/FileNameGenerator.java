@@ -0,0 +1,76 @@
+package provider.random;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fast generator of unique file names in UUID format. Instead of drawing from a
+ * secure random source for every name, a run identifier is combined with a
+ * scrambled counter. The scrambling is a bijection, so the names of one
+ * generator never repeat. With the same seed the same names are generated.
+ *
+ * @author Ivan Ivanov
+ */
+public class FileNameGenerator {
+
+	private final long runId;
+	private final AtomicLong counter;
+
+	/**
+	 * Creates a generator with a random run identifier.
+	 */
+	public FileNameGenerator() {
+		this(new SecureRandom().nextLong());
+	}
+
+	/**
+	 * @param seed
+	 *            used as run identifier
+	 */
+	public FileNameGenerator(long seed) {
+		this.runId = mix(seed);
+		this.counter = new AtomicLong();
+	}
+
+	/**
+	 * @return next unique file name
+	 */
+	public String nextName() {
+		return nameOf(counter.getAndIncrement());
+	}
+
+	/**
+	 * Reserves the names of a batch with a single update of the counter.
+	 *
+	 * @param count
+	 *            count of the reserved names
+	 * @return index of the first reserved name, see {@link #nameOf(long)}
+	 */
+	public long reserve(int count) {
+		return counter.getAndAdd(count);
+	}
+
+	/**
+	 * @param index
+	 *            index of a reserved name
+	 * @return the unique file name of the index
+	 */
+	public String nameOf(long index) {
+		return new UUID(runId, mix(index)).toString();
+	}
+
+	/**
+	 * SplitMix64 finalizer. Scrambles the bits of the value, different values
+	 * always give different results.
+	 *
+	 * @param value
+	 * @return scrambled value
+	 */
+	public static long mix(long value) {
+		long z = value + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
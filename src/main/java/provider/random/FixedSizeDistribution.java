@@ -0,0 +1,43 @@
+package provider.random;
+
+/**
+ * {@link SizeDistribution} giving every file the same size.
+ *
+ * @author Ivan Ivanov
+ */
+public class FixedSizeDistribution implements SizeDistribution {
+
+	private final long size;
+
+	/**
+	 * @param size
+	 *            size of every file in bytes
+	 */
+	public FixedSizeDistribution(long size) {
+		this.size = size;
+	}
+
+	/**
+	 * @see provider.random.SizeDistribution#nextSize()
+	 */
+	@Override
+	public long nextSize() {
+		return size;
+	}
+
+	/**
+	 * @see provider.random.SizeDistribution#getMinSize()
+	 */
+	@Override
+	public long getMinSize() {
+		return size;
+	}
+
+	/**
+	 * @see provider.random.SizeDistribution#getMaxSize()
+	 */
+	@Override
+	public long getMaxSize() {
+		return size;
+	}
+}
@@ -0,0 +1,53 @@
+package provider.random;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * {@link PayloadGenerator} backed by {@link Random}.
+ *
+ * @author Ivan Ivanov
+ */
+public class JdkPayloadGenerator implements PayloadGenerator {
+
+	private static final int CHUNK_SIZE = 8 * 1024;
+
+	private final Random random;
+	private final byte[] chunk;
+
+	/**
+	 * @param seed
+	 */
+	public JdkPayloadGenerator(long seed) {
+		this.random = new Random(seed);
+		this.chunk = new byte[CHUNK_SIZE];
+	}
+
+	/**
+	 * @see provider.random.PayloadGenerator#nextBytes(byte[])
+	 */
+	@Override
+	public void nextBytes(byte[] bytes) {
+		random.nextBytes(bytes);
+	}
+
+	/**
+	 * @see provider.random.PayloadGenerator#nextBytes(java.nio.ByteBuffer)
+	 */
+	@Override
+	public void nextBytes(ByteBuffer buffer) {
+		while (buffer.hasRemaining()) {
+			int length = Math.min(chunk.length, buffer.remaining());
+			random.nextBytes(chunk);
+			buffer.put(chunk, 0, length);
+		}
+	}
+
+	/**
+	 * @see provider.random.PayloadGenerator#nextLong()
+	 */
+	@Override
+	public long nextLong() {
+		return random.nextLong();
+	}
+}
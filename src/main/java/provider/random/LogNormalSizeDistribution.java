@@ -0,0 +1,39 @@
+package provider.random;
+
+/**
+ * {@link SizeDistribution} with log-normally distributed sizes, many small
+ * files and a long tail of large ones.
+ *
+ * @author Ivan Ivanov
+ */
+public class LogNormalSizeDistribution extends RandomSizeDistribution {
+
+	private final double mu;
+	private final double sigma;
+
+	/**
+	 * @param median
+	 *            median size in bytes
+	 * @param sigma
+	 *            standard deviation of the logarithm of the size
+	 * @param minSize
+	 *            smallest size in bytes
+	 * @param maxSize
+	 *            largest size in bytes
+	 * @param seed
+	 *            the same seed gives the same sizes
+	 */
+	public LogNormalSizeDistribution(double median, double sigma, long minSize, long maxSize, long seed) {
+		super(minSize, maxSize, seed);
+		this.mu = Math.log(median);
+		this.sigma = sigma;
+	}
+
+	/**
+	 * @see provider.random.RandomSizeDistribution#nextValue()
+	 */
+	@Override
+	protected double nextValue() {
+		return Math.exp(mu + sigma * nextGaussian());
+	}
+}
@@ -0,0 +1,38 @@
+package provider.random;
+
+/**
+ * {@link SizeDistribution} with normally distributed sizes.
+ *
+ * @author Ivan Ivanov
+ */
+public class NormalSizeDistribution extends RandomSizeDistribution {
+
+	private final double mean;
+	private final double deviation;
+
+	/**
+	 * @param mean
+	 *            mean size in bytes
+	 * @param deviation
+	 *            standard deviation in bytes
+	 * @param minSize
+	 *            smallest size in bytes
+	 * @param maxSize
+	 *            largest size in bytes
+	 * @param seed
+	 *            the same seed gives the same sizes
+	 */
+	public NormalSizeDistribution(double mean, double deviation, long minSize, long maxSize, long seed) {
+		super(minSize, maxSize, seed);
+		this.mean = mean;
+		this.deviation = deviation;
+	}
+
+	/**
+	 * @see provider.random.RandomSizeDistribution#nextValue()
+	 */
+	@Override
+	protected double nextValue() {
+		return mean + deviation * nextGaussian();
+	}
+}
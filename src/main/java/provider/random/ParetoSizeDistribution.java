@@ -0,0 +1,40 @@
+package provider.random;
+
+/**
+ * {@link SizeDistribution} with Pareto distributed sizes. Most files are close
+ * to the scale, a few are much larger. The smaller the shape, the heavier the
+ * tail.
+ *
+ * @author Ivan Ivanov
+ */
+public class ParetoSizeDistribution extends RandomSizeDistribution {
+
+	private final double scale;
+	private final double inverseShape;
+
+	/**
+	 * @param scale
+	 *            smallest typical size in bytes
+	 * @param shape
+	 *            positive shape (alpha) of the tail
+	 * @param minSize
+	 *            smallest size in bytes
+	 * @param maxSize
+	 *            largest size in bytes
+	 * @param seed
+	 *            the same seed gives the same sizes
+	 */
+	public ParetoSizeDistribution(double scale, double shape, long minSize, long maxSize, long seed) {
+		super(minSize, maxSize, seed);
+		this.scale = scale;
+		this.inverseShape = 1 / shape;
+	}
+
+	/**
+	 * @see provider.random.RandomSizeDistribution#nextValue()
+	 */
+	@Override
+	protected double nextValue() {
+		return scale / Math.pow(1.0 - nextDouble(), inverseShape);
+	}
+}
@@ -0,0 +1,77 @@
+package provider.random;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * {@link ReadableByteChannel} producing the content of a file while it is read.
+ * The bytes come from a {@link PayloadGenerator} or are zeros without one.
+ * Nothing is held in memory, so the content can be of any length.
+ *
+ * @author Ivan Ivanov
+ */
+public class PayloadChannel implements ReadableByteChannel {
+
+	private static final byte[] ZEROS = new byte[64 * 1024];
+
+	private final PayloadGenerator payloadGenerator;
+	private long remaining;
+	private boolean open;
+
+	/**
+	 * @param length
+	 *            count of the produced bytes
+	 * @param payloadGenerator
+	 *            generates the bytes, null for zeros. It must not be used by
+	 *            anyone else while the channel is read.
+	 */
+	public PayloadChannel(long length, PayloadGenerator payloadGenerator) {
+		this.payloadGenerator = payloadGenerator;
+		this.remaining = length;
+		this.open = true;
+	}
+
+	/**
+	 * @see java.nio.channels.ReadableByteChannel#read(java.nio.ByteBuffer)
+	 */
+	@Override
+	public int read(ByteBuffer dst) throws IOException {
+		if (!open) {
+			throw new ClosedChannelException();
+		}
+		if (remaining == 0) {
+			return -1;
+		}
+		int count = (int) Math.min(remaining, dst.remaining());
+		if (payloadGenerator == null) {
+			for (int left = count; left > 0; left -= ZEROS.length) {
+				dst.put(ZEROS, 0, Math.min(left, ZEROS.length));
+			}
+		} else {
+			int limit = dst.limit();
+			dst.limit(dst.position() + count);
+			payloadGenerator.nextBytes(dst);
+			dst.limit(limit);
+		}
+		remaining -= count;
+		return count;
+	}
+
+	/**
+	 * @see java.nio.channels.Channel#isOpen()
+	 */
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	/**
+	 * @see java.nio.channels.Channel#close()
+	 */
+	@Override
+	public void close() {
+		open = false;
+	}
+}
@@ -0,0 +1,32 @@
+package provider.random;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Generates the random content of the files. Implementations are not thread
+ * safe, each provider uses its own generator.
+ *
+ * @author Ivan Ivanov
+ */
+public interface PayloadGenerator {
+
+	/**
+	 * Fills the array with random bytes.
+	 *
+	 * @param bytes
+	 */
+	void nextBytes(byte[] bytes);
+
+	/**
+	 * Fills the buffer with random bytes from its position up to its limit. The
+	 * position of the buffer is moved to its limit.
+	 *
+	 * @param buffer
+	 */
+	void nextBytes(ByteBuffer buffer);
+
+	/**
+	 * @return next random long value
+	 */
+	long nextLong();
+}
@@ -0,0 +1,35 @@
+package provider.random;
+
+/**
+ * Provides the ready to use implementations of {@link PayloadGenerator}
+ *
+ * @author Ivan Ivanov
+ */
+public final class PayloadGeneratorFactory {
+
+	private PayloadGeneratorFactory() {
+		// stateless
+	}
+
+	/**
+	 * @param type
+	 *            implementation of the generator
+	 * @param seed
+	 *            the same seed gives the same content
+	 * @param poolSize
+	 *            size of the pre-generated pool in bytes, used by
+	 *            {@link PayloadGeneratorTypes#POOL}
+	 * @return {@link PayloadGenerator}
+	 */
+	public static PayloadGenerator createPayloadGenerator(PayloadGeneratorTypes type, long seed, int poolSize) {
+		switch (type) {
+			case JDK:
+				return new JdkPayloadGenerator(seed);
+			case POOL:
+				return new RandomPoolPayloadGenerator(seed, poolSize);
+			case XORSHIFT:
+			default:
+				return new XorShiftPayloadGenerator(seed);
+		}
+	}
+}
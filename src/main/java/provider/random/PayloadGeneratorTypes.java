@@ -0,0 +1,12 @@
+package provider.random;
+
+/**
+ * Defines different implementations of {@link PayloadGenerator}
+ *
+ * @author Ivan Ivanov
+ */
+public enum PayloadGeneratorTypes {
+	JDK,
+	XORSHIFT,
+	POOL
+}
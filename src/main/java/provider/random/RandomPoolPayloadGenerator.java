@@ -0,0 +1,62 @@
+package provider.random;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link PayloadGenerator} slicing a pre-generated pool of random bytes. Each
+ * request copies the pool from a random offset, so the cost of a file is a
+ * plain memory copy. The content of different files repeats parts of the pool,
+ * which is fine for load generation but not for compression tests.
+ *
+ * @author Ivan Ivanov
+ */
+public class RandomPoolPayloadGenerator implements PayloadGenerator {
+
+	private final XorShiftPayloadGenerator offsets;
+	private final byte[] pool;
+
+	/**
+	 * @param seed
+	 * @param poolSize
+	 *            size of the pre-generated pool in bytes
+	 */
+	public RandomPoolPayloadGenerator(long seed, int poolSize) {
+		this.offsets = new XorShiftPayloadGenerator(seed);
+		this.pool = new byte[poolSize];
+		this.offsets.nextBytes(this.pool);
+	}
+
+	/**
+	 * @see provider.random.PayloadGenerator#nextLong()
+	 */
+	@Override
+	public long nextLong() {
+		return offsets.nextLong();
+	}
+
+	/**
+	 * @see provider.random.PayloadGenerator#nextBytes(byte[])
+	 */
+	@Override
+	public void nextBytes(byte[] bytes) {
+		int position = 0;
+		while (position < bytes.length) {
+			int offset = (int) ((offsets.nextLong() >>> 1) % pool.length);
+			int length = Math.min(pool.length - offset, bytes.length - position);
+			System.arraycopy(pool, offset, bytes, position, length);
+			position += length;
+		}
+	}
+
+	/**
+	 * @see provider.random.PayloadGenerator#nextBytes(java.nio.ByteBuffer)
+	 */
+	@Override
+	public void nextBytes(ByteBuffer buffer) {
+		while (buffer.hasRemaining()) {
+			int offset = (int) ((offsets.nextLong() >>> 1) % pool.length);
+			int length = Math.min(pool.length - offset, buffer.remaining());
+			buffer.put(pool, offset, length);
+		}
+	}
+}
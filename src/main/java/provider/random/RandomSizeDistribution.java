@@ -0,0 +1,88 @@
+package provider.random;
+
+/**
+ * Base of the {@link SizeDistribution}s drawing the sizes from a seeded
+ * xorshift generator. The sizes are rounded and cut to the minimum and maximum
+ * size. Drawing a size allocates nothing.
+ *
+ * @author Ivan Ivanov
+ */
+public abstract class RandomSizeDistribution implements SizeDistribution {
+
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	private final PayloadGenerator random;
+	private final long minSize;
+	private final long maxSize;
+
+	/**
+	 * @param minSize
+	 *            smallest size in bytes
+	 * @param maxSize
+	 *            largest size in bytes
+	 * @param seed
+	 *            the same seed gives the same sizes
+	 */
+	protected RandomSizeDistribution(long minSize, long maxSize, long seed) {
+		this.random = new XorShiftPayloadGenerator(seed);
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @see provider.random.SizeDistribution#nextSize()
+	 */
+	@Override
+	public long nextSize() {
+		double size = Math.rint(nextValue());
+		if (!(size > minSize)) {
+			return minSize;
+		}
+		return size < maxSize ? (long) size : maxSize;
+	}
+
+	/**
+	 * @return next size before rounding and cutting
+	 */
+	protected abstract double nextValue();
+
+	/**
+	 * @return uniformly distributed value in [0, 1)
+	 */
+	protected double nextDouble() {
+		return (random.nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	/**
+	 * @return next random long value
+	 */
+	protected long nextLong() {
+		return random.nextLong();
+	}
+
+	/**
+	 * Standard normal value by the Box-Muller transform.
+	 *
+	 * @return normally distributed value with mean 0 and deviation 1
+	 */
+	protected double nextGaussian() {
+		double u = 1.0 - nextDouble();
+		return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * nextDouble());
+	}
+
+	/**
+	 * @see provider.random.SizeDistribution#getMinSize()
+	 */
+	@Override
+	public long getMinSize() {
+		return minSize;
+	}
+
+	/**
+	 * @see provider.random.SizeDistribution#getMaxSize()
+	 */
+	@Override
+	public long getMaxSize() {
+		return maxSize;
+	}
+}
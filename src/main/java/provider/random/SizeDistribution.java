@@ -0,0 +1,26 @@
+package provider.random;
+
+/**
+ * Generates the sizes of the files. Implementations are not thread safe, each
+ * provider uses its own distribution.
+ *
+ * @author Ivan Ivanov
+ */
+public interface SizeDistribution {
+
+	/**
+	 * @return size of the next file in bytes, between {@link #getMinSize()}
+	 *         and {@link #getMaxSize()}
+	 */
+	long nextSize();
+
+	/**
+	 * @return smallest size in bytes
+	 */
+	long getMinSize();
+
+	/**
+	 * @return largest size in bytes
+	 */
+	long getMaxSize();
+}
@@ -0,0 +1,56 @@
+package provider.random;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Provides the ready to use implementations of {@link SizeDistribution}
+ *
+ * @author Ivan Ivanov
+ */
+public final class SizeDistributionFactory {
+
+	private SizeDistributionFactory() {
+		// stateless
+	}
+
+	/**
+	 * @param type
+	 *            implementation of the distribution
+	 * @param fileSize
+	 *            typical size in bytes: the size of FIXED, the mean of NORMAL,
+	 *            the median of LOGNORMAL and the scale of PARETO
+	 * @param minSize
+	 *            smallest size in bytes, not used by FIXED and EMPIRICAL
+	 * @param maxSize
+	 *            largest size in bytes, not used by FIXED and EMPIRICAL
+	 * @param shape
+	 *            standard deviation in bytes of NORMAL, sigma of LOGNORMAL and
+	 *            alpha of PARETO
+	 * @param histogram
+	 *            histogram file of EMPIRICAL
+	 * @param seed
+	 *            the same seed gives the same sizes
+	 * @return {@link SizeDistribution}
+	 * @throws IOException
+	 *             when the histogram cannot be read
+	 */
+	public static SizeDistribution createSizeDistribution(SizeDistributionTypes type, long fileSize, long minSize,
+			long maxSize, double shape, Path histogram, long seed) throws IOException {
+		switch (type) {
+			case UNIFORM:
+				return new UniformSizeDistribution(minSize, maxSize, seed);
+			case NORMAL:
+				return new NormalSizeDistribution(fileSize, shape, minSize, maxSize, seed);
+			case LOGNORMAL:
+				return new LogNormalSizeDistribution(fileSize, shape, minSize, maxSize, seed);
+			case PARETO:
+				return new ParetoSizeDistribution(fileSize, shape, minSize, maxSize, seed);
+			case EMPIRICAL:
+				return EmpiricalSizeDistribution.read(histogram, seed);
+			case FIXED:
+			default:
+				return new FixedSizeDistribution(fileSize);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package provider.random;
+
+/**
+ * Defines different implementations of {@link SizeDistribution}
+ * <ul>
+ * <li>FIXED - every file has provider.file.size bytes</li>
+ * <li>UNIFORM - uniformly distributed between the minimum and maximum size</li>
+ * <li>NORMAL - normal distribution with provider.file.size as mean</li>
+ * <li>LOGNORMAL - log-normal distribution with provider.file.size as
+ * median</li>
+ * <li>PARETO - Pareto distribution with provider.file.size as scale, the
+ * smallest typical size</li>
+ * <li>EMPIRICAL - histogram of sizes read from a file</li>
+ * </ul>
+ *
+ * @author Ivan Ivanov
+ */
+public enum SizeDistributionTypes {
+	FIXED,
+	UNIFORM,
+	NORMAL,
+	LOGNORMAL,
+	PARETO,
+	EMPIRICAL
+}
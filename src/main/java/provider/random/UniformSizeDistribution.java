@@ -0,0 +1,30 @@
+package provider.random;
+
+/**
+ * {@link SizeDistribution} with every size between the minimum and maximum
+ * equally likely.
+ *
+ * @author Ivan Ivanov
+ */
+public class UniformSizeDistribution extends RandomSizeDistribution {
+
+	/**
+	 * @param minSize
+	 *            smallest size in bytes
+	 * @param maxSize
+	 *            largest size in bytes
+	 * @param seed
+	 *            the same seed gives the same sizes
+	 */
+	public UniformSizeDistribution(long minSize, long maxSize, long seed) {
+		super(minSize, maxSize, seed);
+	}
+
+	/**
+	 * @see provider.random.RandomSizeDistribution#nextValue()
+	 */
+	@Override
+	protected double nextValue() {
+		return getMinSize() + Math.floor(nextDouble() * ((double) getMaxSize() - getMinSize() + 1));
+	}
+}
@@ -0,0 +1,91 @@
+package provider.random;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fast, non-cryptographic {@link PayloadGenerator} using the xorshift64*
+ * algorithm. Each step produces 8 random bytes.
+ *
+ * @author Ivan Ivanov
+ */
+public class XorShiftPayloadGenerator implements PayloadGenerator {
+
+	private static final long MULTIPLIER = 0x2545F4914F6CDD1DL;
+
+	private long state;
+
+	/**
+	 * @param seed
+	 */
+	public XorShiftPayloadGenerator(long seed) {
+		// the state must not be zero
+		this.state = FileNameGenerator.mix(seed);
+		if (this.state == 0) {
+			this.state = MULTIPLIER;
+		}
+	}
+
+	/**
+	 * @see provider.random.PayloadGenerator#nextLong()
+	 */
+	@Override
+	public long nextLong() {
+		long x = state;
+		x ^= x >>> 12;
+		x ^= x << 25;
+		x ^= x >>> 27;
+		state = x;
+		return x * MULTIPLIER;
+	}
+
+	/**
+	 * @see provider.random.PayloadGenerator#nextBytes(byte[])
+	 */
+	@Override
+	public void nextBytes(byte[] bytes) {
+		int i = 0;
+		int words = bytes.length & ~7;
+		while (i < words) {
+			long r = nextLong();
+			bytes[i++] = (byte) r;
+			bytes[i++] = (byte) (r >>> 8);
+			bytes[i++] = (byte) (r >>> 16);
+			bytes[i++] = (byte) (r >>> 24);
+			bytes[i++] = (byte) (r >>> 32);
+			bytes[i++] = (byte) (r >>> 40);
+			bytes[i++] = (byte) (r >>> 48);
+			bytes[i++] = (byte) (r >>> 56);
+		}
+		if (i < bytes.length) {
+			long r = nextLong();
+			while (i < bytes.length) {
+				bytes[i++] = (byte) r;
+				r >>>= 8;
+			}
+		}
+	}
+
+	/**
+	 * Writes whole longs into the buffer, which is a single store per 8 bytes for
+	 * direct buffers.
+	 * 
+	 * @see provider.random.PayloadGenerator#nextBytes(java.nio.ByteBuffer)
+	 */
+	@Override
+	public void nextBytes(ByteBuffer buffer) {
+		ByteOrder order = buffer.order();
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.remaining() >= 8) {
+			buffer.putLong(nextLong());
+		}
+		buffer.order(order);
+		if (buffer.hasRemaining()) {
+			long r = nextLong();
+			while (buffer.hasRemaining()) {
+				buffer.put((byte) r);
+				r >>>= 8;
+			}
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package provider.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import provider.FileProvider;
+import provider.FileProviderBudgetUnits;
+import provider.FileProviderModes;
+import provider.exception.FileProviderException;
+import provider.exception.FileProviderPropertiesValidationException;
+import provider.metrics.MetricsSnapshot;
+import provider.metrics.RunnerMetrics;
+import provider.properties.FileProviderProperties;
+
+/**
+ * Runs several {@link FileProviderRunner}s in one JVM under a global budget of
+ * files or bytes per second. Each runner gets the share of the budget given by
+ * its weight and is paced at that rate, so the combined rate never exceeds the
+ * budget.
+ * <p>
+ * With a bytes budget the rate of each runner is its share divided by the size
+ * of its files. The size is taken from "provider.file.size" and corrected every
+ * second by the average size of the files the runner actually wrote.
+ * <p>
+ * The runners are started and stopped together. Runners in STATIC mode run in
+ * their own thread until their count of files is written.
+ *
+ * @author Ivan Ivanov
+ */
+public class FileProviderCoordinator {
+
+	private static final Logger log = Logger.getLogger(FileProviderCoordinator.class);
+
+	private static final long REBALANCE_INTERVAL = 1L;
+
+	private static final int DEFAULT_FILE_SIZE_ESTIMATE = 64 * 1024;
+
+	private final double budget;
+	private final FileProviderBudgetUnits unit;
+	private final List<Member> members;
+	private Disposable rebalanceSubscription;
+	private volatile boolean running;
+
+	/**
+	 * @param budget
+	 *            combined rate of all runners
+	 * @param unit
+	 *            {@link FileProviderBudgetUnits} of the budget
+	 */
+	public FileProviderCoordinator(double budget, FileProviderBudgetUnits unit) {
+		if (!(budget > 0) || Double.isInfinite(budget)) {
+			throw new FileProviderPropertiesValidationException(
+					FileProviderPropertiesValidationException.WRONG_COORDINATOR_BUDGET);
+		}
+		this.budget = budget;
+		this.unit = unit;
+		this.members = new ArrayList<>();
+	}
+
+	/**
+	 * Adds a runner before the start. The rate of its properties is replaced
+	 * by its share of the budget.
+	 *
+	 * @param fileProvider
+	 * @param properties
+	 * @param weight
+	 *            share of the budget relative to the weights of the other
+	 *            runners
+	 * @return the added {@link FileProviderRunner}
+	 */
+	public synchronized FileProviderRunner addRunner(FileProvider fileProvider, FileProviderProperties properties,
+			double weight) {
+		if (!(weight > 0) || Double.isInfinite(weight)) {
+			throw new FileProviderPropertiesValidationException(
+					FileProviderPropertiesValidationException.WRONG_COORDINATOR_WEIGHT);
+		}
+		FileProviderRunner runner = new FileProviderRunner(fileProvider, properties);
+		this.members.add(new Member(runner, weight, estimateFileSize(properties)));
+		return runner;
+	}
+
+	/**
+	 * Starts all runners with their share of the budget.
+	 */
+	public synchronized void start() {
+		if (this.running) {
+			log.warn("Coordinator is already running.");
+			return;
+		}
+		this.running = true;
+		double totalWeight = 0;
+		for (Member member : this.members) {
+			totalWeight += member.weight;
+		}
+		for (Member member : this.members) {
+			member.share = this.budget * member.weight / totalWeight;
+			FileProviderProperties properties = member.runner.getProperties();
+			properties.setRateFilesPerSecond(member.getRate());
+			log.info("Runner " + this.members.indexOf(member) + ": " + member.share + " " + this.unit
+					+ "/s of the budget, " + member.getRate() + " files/s.");
+		}
+		for (int i = 0; i < this.members.size(); i++) {
+			Member member = this.members.get(i);
+			if (member.isStatic()) {
+				member.thread = new Thread(member.runner::start, "file-provider-runner-" + i);
+				member.thread.start();
+			} else {
+				member.runner.start();
+			}
+		}
+		if (this.unit == FileProviderBudgetUnits.BYTES) {
+			this.rebalanceSubscription = Flowable
+					.interval(REBALANCE_INTERVAL, REBALANCE_INTERVAL, TimeUnit.SECONDS, Schedulers.newThread())
+					.subscribe(tick -> this.rebalance());
+		}
+	}
+
+	/**
+	 * Stops the runners in DYNAMIC mode and waits until the runners in STATIC
+	 * mode have written all their files.
+	 *
+	 * @throws FileProviderException
+	 *             when a runner could not be stopped
+	 */
+	public synchronized void stop() throws FileProviderException {
+		if (!this.running) {
+			log.warn("Cannot stop! Coordinator is not running");
+			return;
+		}
+		if (this.rebalanceSubscription != null) {
+			this.rebalanceSubscription.dispose();
+		}
+		for (Member member : this.members) {
+			if (!member.isStatic() && member.runner.getState() == FileProviderRunner.STATE.RUNNING) {
+				member.runner.stop();
+			}
+		}
+		for (Member member : this.members) {
+			if (member.thread != null) {
+				try {
+					member.thread.join();
+				} catch (InterruptedException e) {
+					log.error(e.getMessage());
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+		this.running = false;
+		log.info("Combined metrics: " + this.getMetrics());
+	}
+
+	/**
+	 * @return metrics of all runners together
+	 */
+	public synchronized MetricsSnapshot getMetrics() {
+		List<RunnerMetrics> metrics = new ArrayList<>(this.members.size());
+		for (Member member : this.members) {
+			metrics.add(member.runner.getRunnerMetrics());
+		}
+		return RunnerMetrics.combine(metrics);
+	}
+
+	/**
+	 * @return the runners in the order they were added
+	 */
+	public synchronized List<FileProviderRunner> getRunners() {
+		List<FileProviderRunner> runners = new ArrayList<>(this.members.size());
+		for (Member member : this.members) {
+			runners.add(member.runner);
+		}
+		return Collections.unmodifiableList(runners);
+	}
+
+	/**
+	 * Corrects the rate of each runner of a bytes budget by the average size
+	 * of its written files.
+	 */
+	private synchronized void rebalance() {
+		for (Member member : this.members) {
+			MetricsSnapshot snapshot = member.runner.getMetrics();
+			if (snapshot.getFilesWritten() > 0) {
+				member.fileSize = (double) snapshot.getBytesWritten() / snapshot.getFilesWritten();
+				member.runner.setRate(member.getRate());
+			}
+		}
+	}
+
+	private static double estimateFileSize(FileProviderProperties properties) {
+		String fileSize = properties.getProperties().getProperty(FileProviderProperties.KEY_FILE_SIZE);
+		try {
+			return fileSize != null ? Math.max(1, Long.parseLong(fileSize.trim())) : DEFAULT_FILE_SIZE_ESTIMATE;
+		} catch (NumberFormatException e) {
+			return DEFAULT_FILE_SIZE_ESTIMATE;
+		}
+	}
+
+	/**
+	 * A runner with its share of the budget.
+	 */
+	private class Member {
+		private final FileProviderRunner runner;
+		private final double weight;
+		private double fileSize;
+		private double share;
+		private Thread thread;
+
+		private Member(FileProviderRunner runner, double weight, double fileSize) {
+			this.runner = runner;
+			this.weight = weight;
+			this.fileSize = fileSize;
+		}
+
+		private boolean isStatic() {
+			return FileProviderModes.STATIC.name().equals(this.runner.getProperties().getProviderMode());
+		}
+
+		/**
+		 * @return files per second of the share
+		 */
+		private double getRate() {
+			return unit == FileProviderBudgetUnits.BYTES ? this.share / this.fileSize : this.share;
+		}
+	}
+}
@@ -1,30 +1,37 @@
 package provider.runner;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 
+import io.reactivex.BackpressureOverflowStrategy;
 import io.reactivex.Flowable;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.MissingBackpressureException;
 import io.reactivex.flowables.ConnectableFlowable;
 import io.reactivex.schedulers.Schedulers;
 import provider.FileProvider;
+import provider.FileProviderExecutionModes;
 import provider.FileProviderModes;
+import provider.FileProviderOverloadPolicies;
 import provider.data.FileProviderData;
 import provider.exception.FileProviderException;
 import provider.exception.FileProviderRuntimeException;
+import provider.metrics.MetricsSnapshot;
+import provider.metrics.RunnerMetrics;
 import provider.properties.FileProviderProperties;
+import provider.sink.FileSink;
+import provider.sink.FileSinkFactory;
+import provider.sink.SinkContext;
+import provider.sink.SinkListener;
 
 
 /**
@@ -37,10 +44,16 @@ public class FileProviderRunner {
 	
 	private static final Logger log = Logger.getLogger(FileProviderRunner.class);
 
-	private static final long FIRST_EMITTED = 0L;
+	private static final long WRITER_SHUTDOWN_TIMEOUT = 60 * 1000L;
 	
-	private static long startTime = 0;
-	private static long endTime = 0;
+	private static final long DRIVER_STOP_TIMEOUT = 5 * 1000L;
+	
+	private static final int TICK_PREFETCH = 1;
+	
+	private static final long REPORT_INTERVAL = 1L;
+	
+	private long startTime;
+	private long endTime;
 	
 	
 	/**
@@ -55,11 +68,22 @@ public class FileProviderRunner {
 	private FileProvider fileProvider;
 	private Disposable controllerSubscription;
     private Disposable driverSubscription;
-    private int processedFilesCount;
-    private Map<String, Long> processedFiles;
+    private Disposable reportSubscription;
+    private LoadReporter loadReporter;
+    private AtomicInteger processedFilesCount;
+    private RunJournal journal;
     private FileProviderProperties properties;
+    private FileWriters writers;
+    private FileProviderExecutionModes executionMode;
+    private Thread driverThread;
+    private volatile RatePacer pacer;
+    private int batchSize;
+    private FileSink sink;
+    private String runnerId;
+    private RunnerMetrics metrics;
     
-    private STATE state;
+    private volatile STATE state;
+    private volatile boolean stopRequested;
 	
 	/**
 	 * @param fileProvider
@@ -68,51 +92,99 @@ public class FileProviderRunner {
 	public FileProviderRunner(FileProvider fileProvider, FileProviderProperties properties) {
 		this.fileProvider = fileProvider;
 		this.properties = properties;
-		this.processedFilesCount = 0;
-		this.processedFiles = new HashMap<>();
+		this.processedFilesCount = new AtomicInteger();
+		this.journal = new RunJournal();
+		this.metrics = new RunnerMetrics();
 	}
 	
 	/**
-	 * Used to start processing of the {@link FileProvider}
+	 * Used to start processing of the {@link FileProvider}. When the file sink
+	 * can not be opened the runner is stopped without writing any file.
 	 */
 	public void start() {
 		log.setLevel(Level.DEBUG);
 		this.state = STATE.RUNNING;
+		this.stopRequested = false;
 		log.info("Starting file provider");
 		startTime = System.currentTimeMillis();
+		String definedRunnerId = this.properties.getRunnerId();
+		this.runnerId = definedRunnerId != null ? definedRunnerId
+				: String.format("%08x", ThreadLocalRandom.current().nextInt());
+		this.batchSize = this.properties.getGenerationBatchSize();
+		this.executionMode = this.properties.getExecutionMode();
+		this.metrics.start();
+		this.journal = this.createJournal();
+		if (this.properties.isMetricsJmx()) {
+			String metricsName = this.properties.getMetricsName();
+			this.metrics.register(metricsName != null ? metricsName : "runner-" + this.runnerId);
+		}
 		try {
 			this.fileProvider.prepareFileData();
 		} catch (IOException e1) {
 			log.error("Failed to prepare the file data.");
 		}
 		
-		ConnectableFlowable<Long> controllingObs = Flowable.interval(this.properties.getFileCreationalInterval(), TimeUnit.MILLISECONDS, Schedulers.newThread())
-                .startWith(FIRST_EMITTED)                              
-                .onBackpressureDrop()
-                .publish();
-		Flowable<FileProviderData> fileProvidingObs = Flowable.just(1)
-				.map(tick -> fileProvider.getFileData())
-				.subscribeOn(Schedulers.computation())
-				.repeatWhen(flowable -> controllingObs);
+		this.sink = FileSinkFactory.createFileSink(this.properties);
+		try {
+			this.sink.open(new SinkContext(this.properties, this.runnerId, startTime, this.metrics,
+					this.createSinkListener()));
+		} catch (IOException e) {
+			log.error("Failed to open the file sink. Stopping File Provider.", e);
+			this.stopWriters();
+			this.state = STATE.STOPPED;
+			endTime = System.currentTimeMillis();
+			return;
+		}
+		this.writers = this.createWriters();
+		this.writers.start();
+		this.metrics.setQueueDepth(this.writers::getQueueDepth);
 		
-		this.controllerSubscription = controllingObs.connect();
+		if (this.properties.isRateDefined()) {
+			this.pacer = new RatePacer(this.properties.getRateFilesPerSecond(), this.properties.getRateBurst());
+		} else {
+			this.pacer = RatePacer.fromInterval(this.properties.getFileCreationalInterval());
+		}
+		this.pacer.setMetrics(this.metrics);
 				
 		if (this.properties.getProviderMode().equals(FileProviderModes.STATIC.name()) ) {
 			long startT = System.currentTimeMillis();			
 			int expectedCount = this.properties.getStaticModeFileCount();
-			while (this.processedFilesCount < expectedCount) {
-				this.saveFile(this.fileProvider.getFileData());		
+			int submittedCount = 0;
+			FileProviderData[] batch = new FileProviderData[Math.min(this.batchSize, expectedCount)];
+			long[] scheduledTimes = new long[batch.length];
+			while (submittedCount < expectedCount) {
+				if (expectedCount - submittedCount < batch.length) {
+					batch = new FileProviderData[expectedCount - submittedCount];
+					scheduledTimes = new long[batch.length];
+				}
 				try {
-					Thread.sleep(this.properties.getFileCreationalInterval());
+					this.pacer.acquire(scheduledTimes);
+					int count = this.generateFileData(batch, scheduledTimes);
+					this.submitAll(batch, count);
+					submittedCount += count;
 				} catch (InterruptedException e) {
 					log.error(e.getMessage());
 				}
 			}
+			this.stopWriters();
 			this.state = STATE.STOPPED;
+			endTime = System.currentTimeMillis();
 			log.debug("Static File Provider runned for: " + (System.currentTimeMillis() - startT) / 1000.0 + " seconds.");
+			this.logAchievedRate();
 			
+		} else if (this.executionMode == FileProviderExecutionModes.VIRTUAL_THREADS) {
+			this.driverThread = new Thread(this::drive, "file-provider-driver");
+			this.driverThread.setDaemon(true);
+			this.startReporter();
+			this.driverThread.start();
 		} else {			
-			this.driverSubscription = fileProvidingObs.subscribe(this::saveFile);
+			ConnectableFlowable<long[]> controllingObs = this.applyOverloadPolicy(this.createTicks())
+	                .publish(TICK_PREFETCH);
+			this.driverSubscription = controllingObs
+					.observeOn(Schedulers.computation(), false, TICK_PREFETCH)
+					.subscribe(this::provideFiles, this::onProvidingError);
+			this.startReporter();
+			this.controllerSubscription = controllingObs.connect();
 		}
 	}
 	
@@ -122,15 +194,28 @@ public class FileProviderRunner {
 	 * @return result of stop invokation
 	 * @throws FileProviderException
 	 */
-	public boolean stop() throws FileProviderException {
+	public synchronized boolean stop() throws FileProviderException {
 		if (state == STATE.STOPPED) {
             log.warn("Cannot stop! File Provider is already stopped");
             return true;
         }
         log.info("Stoping File Provider.");
-        controllerSubscription.dispose();
+        this.stopRequested = true;
+        if (this.driverThread != null) {
+        	this.stopDriver();
+        }
+        if (controllerSubscription != null) {
+        	controllerSubscription.dispose();
+        }
+        if (driverSubscription != null) {
+        	driverSubscription.dispose();
+        }
+        if (this.reportSubscription != null) {
+        	this.reportSubscription.dispose();
+        	this.loadReporter.stop();
+        }
         int retries = 1;
-        while (!controllerSubscription.isDisposed() && retries <= 5) {
+        while (controllerSubscription != null && !controllerSubscription.isDisposed() && retries <= 5) {
         	log.info("Provider still running. Retry stopping: " + retries);
         	try {
 				Thread.sleep(1000);
@@ -140,6 +225,7 @@ public class FileProviderRunner {
         	retries++;
         }
 			
+        this.stopWriters();
         state = STATE.STOPPED;
 
         if(state != STATE.STOPPED) 
@@ -147,66 +233,384 @@ public class FileProviderRunner {
         
         endTime = System.currentTimeMillis();
 		log.debug("Provider runned for: " + (endTime - startTime) / 1000.0 + " seconds.");
+		if (this.loadReporter != null) {
+			this.loadReporter.report();
+		}
+		this.logAchievedRate();
         return true;
 	}
 	
-	private void saveFile(FileProviderData providerData) {
-		this.processedFilesCount++;
-		String fileName = System.currentTimeMillis() + providerData.getFileName();
-		Path pth = null;
-		if (!this.properties.getStoreDirectory().isEmpty() && this.properties.getStoreDirectory() != null) {			
-			pth = Paths.get(this.properties.getStoreDirectory() + "/" + fileName);			
+	/**
+	 * Creates the writers of the {@link FileProviderExecutionModes}.
+	 */
+	private FileWriters createWriters() {
+		FileWriterPool.Writer sinkWriter = new FileWriterPool.Writer() {
+			@Override
+			public void write(List<FileProviderData> batch) {
+				sink.write(batch);
+			}
+
+			@Override
+			public void flush(boolean finished) {
+				sink.flush(finished);
+			}
+		};
+		if (this.executionMode == FileProviderExecutionModes.VIRTUAL_THREADS) {
+			return new VirtualThreadWriters(this.properties.getVirtualThreadsConcurrency(), sinkWriter);
+		}
+		return new FileWriterPool(this.properties.getWriterThreads(), this.properties.getWriterQueueSize(),
+				this.properties.getSinkBatchSize(), sinkWriter);
+	}
+	
+	private void startReporter() {
+		if (this.properties.isReportEnabled()) {
+			this.loadReporter = new LoadReporter(this.pacer, this.metrics);
+			this.reportSubscription = Flowable.interval(REPORT_INTERVAL, REPORT_INTERVAL, TimeUnit.SECONDS, Schedulers.newThread())
+					.subscribe(tick -> this.loadReporter.report());
+		}
+	}
+	
+	/**
+	 * Drives the dynamic mode without RxJava. The ticks are paced in this
+	 * thread and the files wait for a free writer, so no overload policy drops
+	 * a tick. When the driver falls behind the schedule by more than the burst,
+	 * the {@link RatePacer} skips the permits it can not catch up with and
+	 * records them in the scheduled to written latency.
+	 */
+	private void drive() {
+		try {
+			while (!this.stopRequested) {
+				long[] scheduledTimes = new long[this.batchSize];
+				this.pacer.acquire(scheduledTimes);
+				this.provideFiles(scheduledTimes);
+			}
+		} catch (InterruptedException e) {
+			log.debug("File generation interrupted by stop.");
+		} catch (RuntimeException e) {
+			this.onProvidingError(e);
+		}
+	}
+	
+	/**
+	 * Interrupts the driver thread and waits until it exits. Does nothing when
+	 * the driver itself stops the provider after an error.
+	 */
+	private void stopDriver() {
+		if (Thread.currentThread() == this.driverThread) {
+			return;
+		}
+		this.driverThread.interrupt();
+		try {
+			this.driverThread.join(DRIVER_STOP_TIMEOUT);
+		} catch (InterruptedException e) {
+			log.error(e.getMessage());
+			Thread.currentThread().interrupt();
+		}
+		if (this.driverThread.isAlive()) {
+			log.warn("File generation did not stop in " + DRIVER_STOP_TIMEOUT / 1000 + " seconds.");
+		}
+	}
+	
+	/**
+	 * Creates the ticks controlling the file creation. With a defined rate the
+	 * ticks are paced by {@link RatePacer} on a dedicated thread, otherwise
+	 * the creation interval is used. Each tick starts a batch of files and
+	 * holds the intended emission time of each of them in
+	 * {@link System#nanoTime()} units. A tick is emitted when the last file of
+	 * its batch is due.
+	 */
+	private Flowable<long[]> createTicks() {
+		int ticksBatchSize = this.batchSize;
+		if (this.properties.isRateDefined()) {
+			RatePacer ratePacer = this.pacer;
+			return Flowable.<long[]>generate(emitter -> {
+				long[] scheduledTimes = new long[ticksBatchSize];
+				ratePacer.acquire(scheduledTimes);
+				emitter.onNext(scheduledTimes);
+			}).subscribeOn(Schedulers.newThread());
+		}
+		long interval = this.properties.getFileCreationalInterval();
+		return Flowable.defer(() -> {
+			long firstTick = System.nanoTime();
+			return Flowable.interval((ticksBatchSize - 1) * interval, ticksBatchSize * interval, TimeUnit.MILLISECONDS,
+					Schedulers.newThread()).map(tick -> {
+						long[] scheduledTimes = new long[ticksBatchSize];
+						for (int i = 0; i < ticksBatchSize; i++) {
+							scheduledTimes[i] = firstTick + TimeUnit.MILLISECONDS.toNanos((tick * ticksBatchSize + i) * interval);
+						}
+						return scheduledTimes;
+					});
+		});
+	}
+	
+	/**
+	 * Applies the {@link FileProviderOverloadPolicies} to the ticks. The
+	 * generation prefetches a single tick, so every tick not served in time is
+	 * handled by the policy, counted and recorded in the scheduled latency. The
+	 * overflow of a full buffer drops the tick emitted just before the current
+	 * one, which is kept aside to be recorded.
+	 */
+	private Flowable<long[]> applyOverloadPolicy(Flowable<long[]> ticks) {
+		int ticksBatchSize = this.batchSize;
+		switch (this.properties.getOverloadPolicy()) {
+			case BUFFER:
+				return Flowable.defer(() -> {
+					long[][] lastTicks = new long[2][];
+					return ticks.doOnNext(tick -> {
+						lastTicks[0] = lastTicks[1];
+						lastTicks[1] = tick;
+					}).onBackpressureBuffer(Math.max(1, this.properties.getOverloadBufferSize() / ticksBatchSize),
+							() -> this.metrics.recordDroppedTicks(lastTicks[0]), BackpressureOverflowStrategy.DROP_LATEST);
+				});
+			case LATEST:
+				return Flowable.defer(() -> {
+					long[][] lastTicks = new long[2][];
+					return ticks.doOnNext(tick -> {
+						lastTicks[0] = lastTicks[1];
+						lastTicks[1] = tick;
+					}).onBackpressureBuffer(1, () -> this.metrics.recordDroppedTicks(lastTicks[0]),
+							BackpressureOverflowStrategy.DROP_OLDEST);
+				});
+			case FAIL:
+				return ticks.onBackpressureDrop(tick -> {
+					this.metrics.recordDroppedTicks(tick);
+					throw new MissingBackpressureException("Tick could not be served in time.");
+				});
+			case DROP:
+			default:
+				return ticks.onBackpressureDrop(tick -> this.metrics.recordDroppedTicks(tick));
+		}
+	}
+	
+	/**
+	 * Stops the provider when the generation fails, e.g. on the first tick not
+	 * served in time with the FAIL overload policy.
+	 */
+	private void onProvidingError(Throwable error) {
+		if (error instanceof MissingBackpressureException) {
+			log.error("Tick could not be served in time with the " + FileProviderOverloadPolicies.FAIL
+					+ " overload policy. Stopping File Provider.");
 		} else {
-			pth = Paths.get("target/output/" + fileName);			
+			log.error("File generation failed. Stopping File Provider.", error);
 		}
-		
 		try {
-			Files.write(pth, providerData.getFileContent(), StandardOpenOption.CREATE_NEW);
+			this.stop();
+		} catch (FileProviderException e) {
+			log.error(e.getMessage());
+		}
+	}
+	
+	/**
+	 * Generates the files of a tick and hands them to the writers. Stopping the
+	 * provider interrupts the wait for free buffers or for space in the writer
+	 * queue, which is not an error.
+	 */
+	private void provideFiles(long[] scheduledTimes) throws InterruptedException {
+		this.metrics.recordEmittedTicks(scheduledTimes.length);
+		FileProviderData[] batch = new FileProviderData[scheduledTimes.length];
+		try {
+			this.submitAll(batch, this.generateFileData(batch, scheduledTimes));
+		} catch (InterruptedException | FileProviderRuntimeException e) {
+			if (!this.stopRequested) {
+				throw e;
+			}
+			log.debug("File generation interrupted by stop.");
+		}
+	}
+	
+	/**
+	 * Hands the generated files to the writers. The files not handed over when
+	 * interrupted are released.
+	 */
+	private void submitAll(FileProviderData[] batch, int count) throws InterruptedException {
+		int submitted = 0;
+		try {
+			for (; submitted < count; submitted++) {
+				this.writers.submit(batch[submitted]);
+			}
+		} finally {
+			for (int i = submitted; i < count; i++) {
+				batch[i].release();
+			}
+		}
+	}
+	
+	/**
+	 * Records the outcome of each write of the sink in the metrics and the
+	 * journal.
+	 */
+	private SinkListener createSinkListener() {
+		return new SinkListener() {
+			@Override
+			public void written(String fileName, long bytes, long latencyNanos) {
+				metrics.recordWrite(bytes, latencyNanos);
+				journal.append(fileName, System.currentTimeMillis(), bytes, latencyNanos);
+				processedFilesCount.incrementAndGet();
+			}
+
+			@Override
+			public void failed(String fileName, Throwable error) {
+				metrics.recordWriteFailure();
+				log.error("Failed to write " + fileName, error);
+			}
+		};
+	}
+	
+	private RunJournal createJournal() {
+		if (!this.properties.isJournalEnabled()) {
+			return new RunJournal();
+		}
+		Path journalFile = Paths.get(this.properties.getJournalDirectory(), startTime + "-" + this.runnerId + ".journal");
+		try {
+			return new RunJournal(journalFile);
 		} catch (IOException e) {
-			log.error(e);
+			log.error("Failed to create the journal " + journalFile + ". Only the summary is kept.", e);
+			return new RunJournal();
 		}
-		log.debug("File " + fileName + " saved.");		
-		this.processedFiles.put(fileName, System.currentTimeMillis());
 	}
 	
 	/**
-	 * Prints results of the current {@link FileProvider} processing.
+	 * Generates the files of a tick. Each file keeps its intended emission
+	 * time, so its latency is measured from the schedule and not from the
+	 * moment the generation got to it. Otherwise a stall would delay the
+	 * following files without showing in their latency (coordinated omission).
+	 *
+	 * @return count of the generated files
 	 */
-	public void getResults() {
-		int retries = 1;
-		log.info("Results are being generated...");
-		while (this.processedFilesCount > this.processedFiles.size() && retries <= 5) {
-			log.warn("Results not ready. Sleeping for 1 second. Retry " + retries + "/5.");
-			try {
-				
-				Thread.sleep(10 * 1000);
-			} catch (InterruptedException e1) {
-				log.error(e1.getMessage());
+	private int generateFileData(FileProviderData[] batch, long[] scheduledTimes) {
+		long start = System.nanoTime();
+		int count = this.fileProvider.fill(batch);
+		this.metrics.recordGeneration(count, System.nanoTime() - start);
+		for (int i = 0; i < count; i++) {
+			batch[i].setScheduledTime(scheduledTimes[i]);
+		}
+		return count;
+	}
+	
+	private void logAchievedRate() {
+		if (this.properties.isRateDefined() && this.pacer != null) {
+			log.info("Target rate: " + this.pacer.getRate() + " files/s, emitted: " + this.pacer.getAchievedRate()
+					+ " files/s, missed ticks: " + this.pacer.getMissed());
+		}
+		log.info("Achieved rate: " + this.getAchievedRate() + " files/s.");
+		log.info("Metrics: " + this.metrics.snapshot());
+	}
+	
+	private void stopWriters() {
+		if (this.writers != null) {
+			if (!this.writers.shutdown(WRITER_SHUTDOWN_TIMEOUT)) {
+				log.warn("Writers did not finish in " + WRITER_SHUTDOWN_TIMEOUT / 1000 + " seconds.");
 			}
-			if (retries == 5 && this.processedFilesCount > this.processedFilesCount) {
-				throw new FileProviderRuntimeException(FileProviderRuntimeException.FAILED_TO_PARSE_RESULTS_EXCEPTION);
+			for (WriterStats ws : this.writers.getStats()) {
+				log.debug(ws);
 			}
 		}
+		try {
+			if (this.sink != null) {
+				this.sink.close();
+			}
+		} catch (IOException e) {
+			log.error("Failed to close the file sink.", e);
+		}
+		try {
+			this.journal.close();
+		} catch (IOException e) {
+			log.error("Failed to close the journal.", e);
+		}
+		try {
+			this.fileProvider.releaseFileData();
+		} catch (IOException e) {
+			log.error("Failed to release the file data.", e);
+		}
+		this.metrics.stop();
+		this.metrics.unregister();
+	}
+	
+	/**
+	 * Prints results of the current {@link FileProvider} processing. The
+	 * written files are summarized, the record of each file is in the journal.
+	 */
+	public void getResults() {
+		this.journal.flush();
 		log.info("#####################################################");
-		for (Map.Entry<String, Long> e : this.processedFiles.entrySet()) {
-			log.info("------------------------------------------------------------");
-			log.info("| File: " + e.getKey() + " | Processed at: " + convertToNormalDateTime(e.getValue()) + " |");
-			log.info("------------------------------------------------------------");
+		log.info("| Files: " + this.journal.getSummary());
+		if (this.journal.getFile() != null) {
+			log.info("| Journal: " + this.journal.getFile().toAbsolutePath());
 		}
 		log.info("#####################################################");
 	}
 	
+	/**
+	 * @return summary of the written files
+	 */
+	public JournalSummary getJournalSummary() {
+		return this.journal.getSummary();
+	}
+	
 	/**
 	 * @return count of processed files
 	 */
 	public int getProcessedFiles() {
-		return this.processedFilesCount;
+		return this.processedFilesCount.get();
 	}
 	
-	private String convertToNormalDateTime(long time) {
-		DateFormat formatter = new SimpleDateFormat("[dd-MM-yyyy-HH:mm:ss]");
-		
-		Date date = new Date(time);
-		return formatter.format(date);
+	/**
+	 * @return count of written files per second since the start
+	 */
+	public double getAchievedRate() {
+		long end = this.state == STATE.STOPPED && endTime >= startTime ? endTime : System.currentTimeMillis();
+		if (end <= startTime) {
+			return 0;
+		}
+		return this.processedFilesCount.get() * 1000.0 / (end - startTime);
+	}
+	
+	/**
+	 * Changes the target rate while running. Applies to the runs paced by a
+	 * rate, see {@link FileProviderProperties#setRateFilesPerSecond(double)}.
+	 *
+	 * @param filesPerSecond
+	 */
+	public void setRate(double filesPerSecond) {
+		RatePacer ratePacer = this.pacer;
+		if (ratePacer != null) {
+			ratePacer.setRate(filesPerSecond);
+		}
+	}
+	
+	/**
+	 * @return {@link STATE} of the runner, null before the first start
+	 */
+	public STATE getState() {
+		return this.state;
+	}
+	
+	/**
+	 * @return properties of the runner
+	 */
+	public FileProviderProperties getProperties() {
+		return this.properties;
+	}
+	
+	RunnerMetrics getRunnerMetrics() {
+		return this.metrics;
+	}
+	
+	/**
+	 * @return current metrics of the run, also available through JMX while
+	 *         running
+	 */
+	public MetricsSnapshot getMetrics() {
+		return this.metrics.snapshot();
+	}
+	
+	/**
+	 * @return statistics of each writer thread
+	 */
+	public List<WriterStats> getWriterStats() {
+		if (this.writers == null) {
+			return Collections.emptyList();
+		}
+		return this.writers.getStats();
 	}
 }
@@ -0,0 +1,187 @@
+package provider.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import provider.data.FileProviderData;
+
+/**
+ * Pool of writer threads used by {@link FileProviderRunner} to save the provided
+ * files in parallel. The files are handed over through a bounded queue. When the
+ * queue is full the producer is blocked until a writer takes the next file. A
+ * writer takes every waiting file up to the batch size at once.
+ *
+ * @author Ivan Ivanov
+ */
+public class FileWriterPool implements FileWriters {
+
+	private static final Logger log = Logger.getLogger(FileWriterPool.class);
+
+	private static final long POLL_TIMEOUT_MILLIS = 10;
+
+	/**
+	 * Writes a batch of files. Called from the writer threads.
+	 *
+	 * @author Ivan Ivanov
+	 */
+	public interface Writer {
+
+		/**
+		 * Writes the files and releases them.
+		 *
+		 * @param batch
+		 *            the files to be written, the list is reused after the call
+		 */
+		void write(List<FileProviderData> batch);
+
+		/**
+		 * Completes the work deferred by the previous writes of the calling
+		 * thread, e.g. pending syncs. Called after each write, when no file is
+		 * waiting and before the writer thread exits or the writers shut down.
+		 *
+		 * @param finished
+		 *            true when the writer thread exits or the writers shut down
+		 */
+		default void flush(boolean finished) {
+		}
+	}
+
+	private final BlockingQueue<FileProviderData> queue;
+	private final Writer writer;
+	private final int batchSize;
+	private final Thread[] threads;
+	private final List<WriterStats> stats;
+	private volatile boolean running;
+
+	/**
+	 * @param threadCount
+	 *            count of the writer threads
+	 * @param queueSize
+	 *            maximum count of files waiting to be written
+	 * @param batchSize
+	 *            maximum count of files written at once
+	 * @param writer
+	 *            writes the files
+	 */
+	public FileWriterPool(int threadCount, int queueSize, int batchSize, Writer writer) {
+		this.queue = new ArrayBlockingQueue<>(queueSize);
+		this.writer = writer;
+		this.batchSize = batchSize;
+		this.threads = new Thread[threadCount];
+		List<WriterStats> writerStats = new ArrayList<>(threadCount);
+		for (int i = 0; i < threadCount; i++) {
+			WriterStats ws = new WriterStats("file-writer-" + i);
+			writerStats.add(ws);
+			this.threads[i] = new Thread(() -> this.work(ws), ws.getWriterName());
+			this.threads[i].setDaemon(true);
+		}
+		this.stats = Collections.unmodifiableList(writerStats);
+	}
+
+	/**
+	 * Starts the writer threads.
+	 */
+	@Override
+	public void start() {
+		this.running = true;
+		for (Thread thread : this.threads) {
+			thread.start();
+		}
+	}
+
+	/**
+	 * Hands the file over to the writers. Blocks while the queue is full.
+	 *
+	 * @param providerData
+	 * @throws InterruptedException
+	 *             when interrupted while waiting for free space in the queue
+	 */
+	@Override
+	public void submit(FileProviderData providerData) throws InterruptedException {
+		this.queue.put(providerData);
+	}
+
+	/**
+	 * Stops the pool. The files already in the queue are written before the
+	 * writers exit.
+	 *
+	 * @param timeoutMillis
+	 *            maximum time to wait for each writer
+	 * @return true if all writers are finished
+	 */
+	@Override
+	public boolean shutdown(long timeoutMillis) {
+		this.running = false;
+		boolean finished = true;
+		for (Thread thread : this.threads) {
+			try {
+				thread.join(timeoutMillis);
+			} catch (InterruptedException e) {
+				log.error(e.getMessage());
+				Thread.currentThread().interrupt();
+			}
+			finished &= !thread.isAlive();
+		}
+		return finished;
+	}
+
+	/**
+	 * @return count of the files waiting to be written
+	 */
+	@Override
+	public int getQueueDepth() {
+		return this.queue.size();
+	}
+
+	/**
+	 * @return statistics of each writer thread
+	 */
+	@Override
+	public List<WriterStats> getStats() {
+		return this.stats;
+	}
+
+	private void work(WriterStats ws) {
+		List<FileProviderData> batch = new ArrayList<>(this.batchSize);
+		while (this.running || !this.queue.isEmpty()) {
+			FileProviderData providerData;
+			try {
+				providerData = this.queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				log.error(e.getMessage());
+				break;
+			}
+			if (providerData == null) {
+				this.writer.flush(false);
+				continue;
+			}
+			batch.add(providerData);
+			this.queue.drainTo(batch, this.batchSize - 1);
+			long bytes = 0;
+			for (FileProviderData data : batch) {
+				bytes += data.getContentLength();
+			}
+			long start = System.nanoTime();
+			try {
+				this.writer.write(batch);
+				ws.recordWrite(batch.size(), bytes, System.nanoTime() - start);
+			} catch (RuntimeException e) {
+				ws.recordFailure(System.nanoTime() - start);
+				log.error("Failed to write a batch of " + batch.size() + " files.", e);
+				for (FileProviderData data : batch) {
+					data.release();
+				}
+			} finally {
+				batch.clear();
+			}
+			this.writer.flush(false);
+		}
+		this.writer.flush(true);
+	}
+}
@@ -0,0 +1,46 @@
+package provider.runner;
+
+import java.util.List;
+
+import provider.data.FileProviderData;
+
+/**
+ * Writes the files handed over by the {@link FileProviderRunner}.
+ *
+ * @author Ivan Ivanov
+ */
+public interface FileWriters {
+
+	/**
+	 * Starts the writers.
+	 */
+	void start();
+
+	/**
+	 * Hands the file over to the writers. Blocks while the writers are full.
+	 *
+	 * @param providerData
+	 * @throws InterruptedException
+	 *             when interrupted while waiting for the writers
+	 */
+	void submit(FileProviderData providerData) throws InterruptedException;
+
+	/**
+	 * Stops the writers. The files already handed over are written before.
+	 *
+	 * @param timeoutMillis
+	 *            maximum time to wait for the writers
+	 * @return true if all writers are finished
+	 */
+	boolean shutdown(long timeoutMillis);
+
+	/**
+	 * @return count of the files handed over and not written yet
+	 */
+	int getQueueDepth();
+
+	/**
+	 * @return statistics of the writers
+	 */
+	List<WriterStats> getStats();
+}
@@ -0,0 +1,102 @@
+package provider.runner;
+
+import java.time.Instant;
+
+import provider.metrics.LatencySnapshot;
+
+/**
+ * Summary of the files recorded in a {@link RunJournal}.
+ *
+ * @author Ivan Ivanov
+ */
+public class JournalSummary {
+
+	private final long count;
+	private final long totalBytes;
+	private final long minSize;
+	private final long maxSize;
+	private final long firstTimestamp;
+	private final long lastTimestamp;
+	private final LatencySnapshot latency;
+
+	/**
+	 * @param count
+	 * @param totalBytes
+	 * @param minSize
+	 * @param maxSize
+	 * @param firstTimestamp
+	 * @param lastTimestamp
+	 * @param latency
+	 */
+	public JournalSummary(long count, long totalBytes, long minSize, long maxSize, long firstTimestamp,
+			long lastTimestamp, LatencySnapshot latency) {
+		this.count = count;
+		this.totalBytes = totalBytes;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.firstTimestamp = firstTimestamp;
+		this.lastTimestamp = lastTimestamp;
+		this.latency = latency;
+	}
+
+	/**
+	 * @return count of the written files
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return sum of the sizes of the written files
+	 */
+	public long getTotalBytes() {
+		return totalBytes;
+	}
+
+	/**
+	 * @return size of the smallest file
+	 */
+	public long getMinSize() {
+		return minSize;
+	}
+
+	/**
+	 * @return size of the largest file
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return time in millis when the first file was written
+	 */
+	public long getFirstTimestamp() {
+		return firstTimestamp;
+	}
+
+	/**
+	 * @return time in millis when the last file was written
+	 */
+	public long getLastTimestamp() {
+		return lastTimestamp;
+	}
+
+	/**
+	 * @return latency of writing the files in nanoseconds
+	 */
+	public LatencySnapshot getLatency() {
+		return latency;
+	}
+
+	@Override
+	public String toString() {
+		if (count == 0) {
+			return "files=0";
+		}
+		long span = lastTimestamp - firstTimestamp;
+		return "files=" + count + ", bytes=" + totalBytes + ", size min/avg/max=" + minSize + "/" + totalBytes / count
+				+ "/" + maxSize + ", from " + Instant.ofEpochMilli(firstTimestamp) + " to "
+				+ Instant.ofEpochMilli(lastTimestamp) + ", files/s=" + (span == 0 ? count : count * 1000 / span)
+				+ ", write latency [" + latency + "]";
+	}
+}
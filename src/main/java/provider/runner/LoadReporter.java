@@ -0,0 +1,71 @@
+package provider.runner;
+
+import org.apache.log4j.Logger;
+
+import provider.metrics.RunnerMetrics;
+
+/**
+ * Logs the files planned by the schedule of the {@link RatePacer} next to the
+ * emitted ticks, the written files, the dropped ticks and the permits missed
+ * by the pacer, for the last interval and since the start. It shows whether a
+ * run actually delivered the configured load.
+ *
+ * @author Ivan Ivanov
+ */
+class LoadReporter {
+
+	private static final Logger log = Logger.getLogger(LoadReporter.class);
+
+	private final RatePacer pacer;
+	private final RunnerMetrics metrics;
+	private volatile long stopNanos;
+	private long lastNanos;
+	private long lastPlanned;
+	private long lastEmitted;
+	private long lastWritten;
+	private long lastDropped;
+	private long lastMissed;
+
+	/**
+	 * @param pacer
+	 *            pacer of the runner, its schedule gives the planned files
+	 * @param metrics
+	 *            metrics of the runner
+	 */
+	LoadReporter(RatePacer pacer, RunnerMetrics metrics) {
+		this.pacer = pacer;
+		this.metrics = metrics;
+		this.lastNanos = System.nanoTime();
+	}
+
+	/**
+	 * Marks the end of the ticks. No files are planned afterwards.
+	 */
+	void stop() {
+		this.stopNanos = System.nanoTime();
+	}
+
+	/**
+	 * Logs the counts since the previous report and since the start.
+	 */
+	synchronized void report() {
+		long now = System.nanoTime();
+		long plannedUntil = this.stopNanos != 0 ? this.stopNanos : now;
+		long planned = this.pacer.getPlanned(plannedUntil);
+		long emitted = this.metrics.getEmittedTicks();
+		long written = this.metrics.getFilesWritten();
+		long dropped = this.metrics.getDroppedTicks();
+		long missed = this.pacer.getMissed();
+		log.info(String.format("Last %.1f s: planned=%d, emitted=%d, written=%d, dropped=%d, missed=%d, queue=%d"
+				+ " | total: planned=%d, emitted=%d, written=%d, dropped=%d, missed=%d",
+				(now - this.lastNanos) / 1e9, planned - this.lastPlanned, emitted - this.lastEmitted,
+				written - this.lastWritten, dropped - this.lastDropped, missed - this.lastMissed,
+				this.metrics.getQueueDepth(), planned, emitted, written, dropped, missed));
+		this.lastNanos = now;
+		this.lastPlanned = planned;
+		this.lastEmitted = emitted;
+		this.lastWritten = written;
+		this.lastDropped = dropped;
+		this.lastMissed = missed;
+	}
+}
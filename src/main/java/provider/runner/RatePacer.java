@@ -0,0 +1,237 @@
+package provider.runner;
+
+import java.util.concurrent.locks.LockSupport;
+
+import provider.metrics.RunnerMetrics;
+
+/**
+ * Paces the file emission of {@link FileProviderRunner} at a fixed rate. Each
+ * permit has an intended emission time on a nanosecond schedule, so sleeping
+ * jitter does not accumulate. When the caller falls behind the schedule, up to
+ * <code>burst</code> permits are handed out without waiting to catch up. Permits
+ * lagging further behind are skipped and counted as missed. With
+ * {@link #setMetrics(RunnerMetrics)} each skipped permit is also recorded with
+ * the scheduled latency it had when skipped, so the omitted files still show
+ * in the latency percentiles. Without pacing there is no schedule, a permit is
+ * intended at the time it is taken. The rate can be changed while running, the
+ * schedule continues from the next permit.
+ *
+ * @author Ivan Ivanov
+ */
+public class RatePacer {
+
+	private static final long SPIN_THRESHOLD_NANOS = 100 * 1000L;
+
+	private volatile double periodNanos;
+	private final long burst;
+	private volatile long startNanos;
+	private long originNanos;
+	private long scheduled;
+	private long plannedBefore;
+	private volatile long issued;
+	private volatile long missed;
+	private RunnerMetrics metrics;
+
+	/**
+	 * @param permitsPerSecond
+	 *            rate of the permits. Values &lt;= 0 or infinite mean no pacing.
+	 * @param burst
+	 *            count of permits which can be handed out without waiting when
+	 *            the caller is behind the schedule
+	 */
+	public RatePacer(double permitsPerSecond, long burst) {
+		this.periodNanos = periodOf(permitsPerSecond);
+		this.burst = Math.max(1, burst);
+	}
+
+	/**
+	 * Creates a pacer handing out one permit per interval.
+	 *
+	 * @param intervalMillis
+	 *            interval between two permits in milliseconds
+	 * @return {@link RatePacer}
+	 */
+	public static RatePacer fromInterval(long intervalMillis) {
+		return new RatePacer(intervalMillis > 0 ? 1000.0 / intervalMillis : 0, 1);
+	}
+
+	/**
+	 * @param metrics
+	 *            receives the scheduled latency of the skipped permits
+	 */
+	public synchronized void setMetrics(RunnerMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Blocks until the next permit is due. The wait happens outside the lock,
+	 * so {@link #setRate(double)} is not held up by a waiting caller.
+	 *
+	 * @return intended emission time of the permit in {@link System#nanoTime()}
+	 *         units
+	 */
+	public long acquire() {
+		long intended;
+		synchronized (this) {
+			intended = this.next();
+		}
+		waitUntil(intended);
+		return intended;
+	}
+
+	/**
+	 * Takes the next permits at once. Blocks until the last of them is due.
+	 *
+	 * @param intendedTimes
+	 *            receives the intended emission time of each permit in
+	 *            {@link System#nanoTime()} units
+	 */
+	public void acquire(long[] intendedTimes) {
+		synchronized (this) {
+			for (int i = 0; i < intendedTimes.length; i++) {
+				intendedTimes[i] = this.next();
+			}
+		}
+		waitUntil(intendedTimes[intendedTimes.length - 1]);
+	}
+
+	/**
+	 * @return intended emission time of the next permit, the current time when
+	 *         not paced
+	 */
+	private long next() {
+		long now = System.nanoTime();
+		if (this.issued == 0) {
+			this.startNanos = now;
+			this.originNanos = now;
+		}
+		if (this.periodNanos <= 0) {
+			// no schedule - a permit is intended when it is taken
+			this.scheduled++;
+			this.issued++;
+			return now;
+		}
+		long intended = intendedTime(this.scheduled);
+		if (now - intended > this.burst * this.periodNanos) {
+			// too far behind - skip the permits which can not be caught up with
+			long behind = (long) ((now - intended) / this.periodNanos) - this.burst + 1;
+			this.recordSkipped(now, behind);
+			this.scheduled += behind;
+			this.missed += behind;
+			intended = intendedTime(this.scheduled);
+		}
+		this.scheduled++;
+		this.issued++;
+		return intended;
+	}
+
+	/**
+	 * Records each skipped permit as if it was emitted now, the same way an
+	 * expected interval backfill corrects for coordinated omission.
+	 */
+	private void recordSkipped(long now, long count) {
+		if (this.metrics == null) {
+			return;
+		}
+		for (long i = 0; i < count; i++) {
+			this.metrics.recordScheduledLatency(now - intendedTime(this.scheduled + i));
+		}
+	}
+
+	/**
+	 * Changes the rate. The permits already handed out keep their times, the
+	 * next permit is due one new period after the last one.
+	 *
+	 * @param permitsPerSecond
+	 *            rate of the permits. Values &lt;= 0 or infinite mean no pacing.
+	 */
+	public synchronized void setRate(double permitsPerSecond) {
+		if (this.issued > 0) {
+			long now = System.nanoTime();
+			long last = this.periodNanos > 0 ? intendedTime(this.scheduled - 1) : now;
+			this.originNanos = Math.min(last, now);
+			// the last permit becomes the first one of the new schedule
+			this.plannedBefore += this.scheduled - 1;
+			this.scheduled = 1;
+		}
+		this.periodNanos = periodOf(permitsPerSecond);
+	}
+
+	/**
+	 * @return configured rate in permits per second, 0 when not paced
+	 */
+	public double getRate() {
+		return this.periodNanos > 0 ? 1000000000.0 / this.periodNanos : 0;
+	}
+
+	/**
+	 * Counts the permits of the schedule due until the given time, at the rate
+	 * which applied when they were due. Skipped permits are counted, so a
+	 * change of the rate does not rewrite the permits planned before it.
+	 *
+	 * @param nanos
+	 *            time in {@link System#nanoTime()} units
+	 * @return count of the permits planned since the first permit
+	 */
+	public synchronized long getPlanned(long nanos) {
+		if (this.issued == 0) {
+			return this.plannedBefore;
+		}
+		if (this.periodNanos <= 0) {
+			return this.plannedBefore + this.scheduled;
+		}
+		if (nanos < this.originNanos) {
+			return this.plannedBefore;
+		}
+		return this.plannedBefore + (long) ((nanos - this.originNanos) / this.periodNanos) + 1;
+	}
+
+	/**
+	 * @return count of the handed out permits
+	 */
+	public long getIssued() {
+		return this.issued;
+	}
+
+	/**
+	 * @return count of the permits skipped because the caller was too far behind
+	 */
+	public long getMissed() {
+		return this.missed;
+	}
+
+	/**
+	 * @return rate of the handed out permits per second since the first permit
+	 */
+	public double getAchievedRate() {
+		long elapsed = System.nanoTime() - this.startNanos;
+		if (this.issued == 0 || elapsed <= 0) {
+			return 0;
+		}
+		return this.issued * 1000000000.0 / elapsed;
+	}
+
+	private long intendedTime(long permit) {
+		return this.originNanos + (long) (permit * this.periodNanos);
+	}
+
+	private static double periodOf(double permitsPerSecond) {
+		return permitsPerSecond > 0 && !Double.isInfinite(permitsPerSecond) ? 1000000000.0 / permitsPerSecond : 0;
+	}
+
+	/**
+	 * Returns early when the thread is interrupted, so stopping the caller does
+	 * not wait for the next permit.
+	 */
+	private static void waitUntil(long deadline) {
+		long remaining = deadline - System.nanoTime();
+		while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+			if (remaining > SPIN_THRESHOLD_NANOS) {
+				LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+			} else {
+				Thread.yield();
+			}
+			remaining = deadline - System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package provider.runner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.log4j.Logger;
+
+import provider.metrics.LatencyHistogram;
+
+/**
+ * Append-only binary journal of the written files. Each file is a record of
+ * {@value #RECORD_SIZE} bytes: the id of the file name ({@link #nameId(String)}),
+ * the time in millis when it was written, its size and the write latency in
+ * nanoseconds, all as big-endian longs. Records are collected in a small
+ * off-heap buffer and appended to the journal file when it is full, so the
+ * memory stays the same regardless of the length of the run.
+ * <p>
+ * The summary statistics are kept while appending. A journal without a file
+ * only keeps the summary.
+ *
+ * @author Ivan Ivanov
+ */
+public class RunJournal implements Closeable {
+
+	private static final Logger log = Logger.getLogger(RunJournal.class);
+
+	public static final int RECORD_SIZE = 4 * Long.BYTES;
+
+	private static final int BUFFERED_RECORDS = 2048;
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final Path file;
+	private final ByteBuffer buffer;
+	private final LatencyHistogram latency;
+	private FileChannel channel;
+	private long count;
+	private long totalBytes;
+	private long minSize;
+	private long maxSize;
+	private long firstTimestamp;
+	private long lastTimestamp;
+
+	/**
+	 * Creates a journal keeping only the summary.
+	 */
+	public RunJournal() {
+		this.file = null;
+		this.buffer = null;
+		this.latency = new LatencyHistogram();
+	}
+
+	/**
+	 * @param file
+	 *            the journal file, it must not exist
+	 * @throws IOException
+	 *             when the file could not be created
+	 */
+	public RunJournal(Path file) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		this.file = file;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFERED_RECORDS);
+		this.latency = new LatencyHistogram();
+	}
+
+	/**
+	 * Records a written file.
+	 *
+	 * @param fileName
+	 * @param timestamp
+	 *            time in millis when the file was written
+	 * @param size
+	 *            size of the file in bytes
+	 * @param latencyNanos
+	 *            time spent writing the file
+	 */
+	public synchronized void append(String fileName, long timestamp, long size, long latencyNanos) {
+		this.record(timestamp, size, latencyNanos);
+		if (this.channel == null) {
+			return;
+		}
+		this.buffer.putLong(nameId(fileName)).putLong(timestamp).putLong(size).putLong(latencyNanos);
+		if (!this.buffer.hasRemaining()) {
+			this.writeBuffer();
+		}
+	}
+
+	/**
+	 * Writes the buffered records to the journal file.
+	 */
+	public synchronized void flush() {
+		if (this.channel != null && this.buffer.position() > 0) {
+			this.writeBuffer();
+		}
+	}
+
+	/**
+	 * @return the journal file or null if the journal keeps only the summary
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * @return summary of the recorded files
+	 */
+	public synchronized JournalSummary getSummary() {
+		return new JournalSummary(this.count, this.totalBytes, this.minSize, this.maxSize, this.firstTimestamp,
+				this.lastTimestamp, this.latency.snapshot());
+	}
+
+	/**
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		this.flush();
+		if (this.channel != null) {
+			this.channel.close();
+			this.channel = null;
+		}
+	}
+
+	/**
+	 * Reads a journal file and summarizes its records.
+	 *
+	 * @param file
+	 *            journal file
+	 * @return {@link JournalSummary}
+	 * @throws IOException
+	 */
+	public static JournalSummary summarize(Path file) throws IOException {
+		RunJournal journal = new RunJournal();
+		ByteBuffer records = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFERED_RECORDS);
+		try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (source.read(records) > 0 || records.position() > 0) {
+				records.flip();
+				while (records.remaining() >= RECORD_SIZE) {
+					records.getLong();
+					journal.record(records.getLong(), records.getLong(), records.getLong());
+				}
+				if (records.hasRemaining() && source.position() == source.size()) {
+					log.warn("Journal " + file + " ends with an incomplete record.");
+					break;
+				}
+				records.compact();
+			}
+		}
+		return journal.getSummary();
+	}
+
+	/**
+	 * 64 bit FNV-1a hash of the file name. Used as id of the file in the
+	 * journal.
+	 *
+	 * @param fileName
+	 * @return id of the file name
+	 */
+	public static long nameId(String fileName) {
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = 0; i < fileName.length(); i++) {
+			hash ^= fileName.charAt(i);
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	private void record(long timestamp, long size, long latencyNanos) {
+		if (this.count == 0) {
+			this.minSize = size;
+			this.maxSize = size;
+			this.firstTimestamp = timestamp;
+		} else {
+			this.minSize = Math.min(this.minSize, size);
+			this.maxSize = Math.max(this.maxSize, size);
+		}
+		this.lastTimestamp = Math.max(this.lastTimestamp, timestamp);
+		this.count++;
+		this.totalBytes += size;
+		this.latency.record(latencyNanos);
+	}
+
+	private void writeBuffer() {
+		this.buffer.flip();
+		try {
+			while (this.buffer.hasRemaining()) {
+				this.channel.write(this.buffer);
+			}
+		} catch (IOException e) {
+			log.error("Failed to write the journal " + this.file + ". Only the summary is kept from now on.", e);
+			try {
+				this.channel.close();
+			} catch (IOException ce) {
+				log.error("Failed to close the journal " + this.file, ce);
+			}
+			this.channel = null;
+		}
+		this.buffer.clear();
+	}
+}
@@ -0,0 +1,165 @@
+package provider.runner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import provider.data.FileProviderData;
+
+/**
+ * Writes each file in its own virtual thread. A thread per file makes the
+ * blocking writes scale to thousands of concurrent files without tuning a
+ * pool. The count of files in flight is capped by a semaphore, so the
+ * producer is blocked while the cap is reached.
+ * <p>
+ * Virtual threads are looked up at runtime, the project is still built for
+ * Java 8. Without them an unbounded pool of platform threads is used, which
+ * stays within the cap as well.
+ * <p>
+ * Each thread writes a single file and leaves the work deferred by the sink,
+ * e.g. a GROUP sync or a TCP connection, to the threads after it. The work
+ * left over is completed when the writers shut down.
+ *
+ * @author Ivan Ivanov
+ */
+public class VirtualThreadWriters implements FileWriters {
+
+	private static final Logger log = Logger.getLogger(VirtualThreadWriters.class);
+
+	private static final String WRITER_NAME = "virtual-writers";
+
+	private final int concurrency;
+	private final Semaphore permits;
+	private final FileWriterPool.Writer writer;
+	private final WriterStats stats;
+	private ExecutorService executor;
+
+	/**
+	 * @param concurrency
+	 *            maximum count of files written at the same time
+	 * @param writer
+	 *            writes the files
+	 */
+	public VirtualThreadWriters(int concurrency, FileWriterPool.Writer writer) {
+		this.concurrency = concurrency;
+		this.permits = new Semaphore(concurrency);
+		this.writer = writer;
+		this.stats = new WriterStats(WRITER_NAME);
+	}
+
+	/**
+	 * @see provider.runner.FileWriters#start()
+	 */
+	@Override
+	public void start() {
+		this.executor = createExecutor();
+	}
+
+	/**
+	 * Starts the write of the file in a new thread. Blocks while the cap of
+	 * files in flight is reached.
+	 *
+	 * @see provider.runner.FileWriters#submit(provider.data.FileProviderData)
+	 */
+	@Override
+	public void submit(FileProviderData providerData) throws InterruptedException {
+		this.permits.acquire();
+		try {
+			this.executor.execute(() -> this.write(providerData));
+		} catch (RejectedExecutionException e) {
+			this.permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Waits for the files in flight, then completes the work deferred by the
+	 * sink.
+	 *
+	 * @see provider.runner.FileWriters#shutdown(long)
+	 */
+	@Override
+	public boolean shutdown(long timeoutMillis) {
+		this.executor.shutdown();
+		try {
+			return this.executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			log.error(e.getMessage());
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			this.writer.flush(true);
+		}
+	}
+
+	/**
+	 * @return count of the files being written
+	 */
+	@Override
+	public int getQueueDepth() {
+		return this.concurrency - this.permits.availablePermits();
+	}
+
+	/**
+	 * @return statistics of all writer threads together
+	 */
+	@Override
+	public List<WriterStats> getStats() {
+		return Collections.singletonList(this.stats);
+	}
+
+	private void write(FileProviderData providerData) {
+		long bytes = providerData.getContentLength();
+		long start = System.nanoTime();
+		try {
+			this.writer.write(Collections.singletonList(providerData));
+			synchronized (this.stats) {
+				this.stats.recordWrite(1, bytes, System.nanoTime() - start);
+			}
+		} catch (RuntimeException e) {
+			synchronized (this.stats) {
+				this.stats.recordFailure(System.nanoTime() - start);
+			}
+			log.error("Failed to write " + providerData.getFileName(), e);
+			providerData.release();
+		} finally {
+			this.writer.flush(false);
+			this.permits.release();
+		}
+	}
+
+	private static ExecutorService createExecutor() {
+		ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+		if (virtualThreads != null) {
+			log.info("Writing the files in virtual threads.");
+			return virtualThreads;
+		}
+		log.warn("Virtual threads are not available on Java " + System.getProperty("java.version")
+				+ ". Writing the files in platform threads.");
+		AtomicInteger threads = new AtomicInteger();
+		return Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, "file-writer-" + threads.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return Executors.newVirtualThreadPerTaskExecutor() of Java 21, null
+	 *         before
+	 */
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+}
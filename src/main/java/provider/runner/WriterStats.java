@@ -0,0 +1,76 @@
+package provider.runner;
+
+/**
+ * Statistics of a single writer thread of the {@link FileWriterPool}, or of all
+ * threads of the {@link VirtualThreadWriters}. The values are updated by one
+ * thread at a time and can be read from any thread.
+ *
+ * @author Ivan Ivanov
+ */
+public class WriterStats {
+
+	private final String writerName;
+	private volatile long filesWritten;
+	private volatile long bytesWritten;
+	private volatile long failures;
+	private volatile long busyNanos;
+
+	/**
+	 * @param writerName
+	 */
+	public WriterStats(String writerName) {
+		this.writerName = writerName;
+	}
+
+	void recordWrite(int files, long bytes, long nanos) {
+		this.filesWritten = this.filesWritten + files;
+		this.bytesWritten = this.bytesWritten + bytes;
+		this.busyNanos = this.busyNanos + nanos;
+	}
+
+	void recordFailure(long nanos) {
+		this.failures = this.failures + 1;
+		this.busyNanos = this.busyNanos + nanos;
+	}
+
+	/**
+	 * @return name of the writer thread
+	 */
+	public String getWriterName() {
+		return writerName;
+	}
+
+	/**
+	 * @return count of the files handed to the sink by the writer
+	 */
+	public long getFilesWritten() {
+		return filesWritten;
+	}
+
+	/**
+	 * @return count of the bytes handed to the sink by the writer
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * @return count of the batches failed as a whole
+	 */
+	public long getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return time in nanoseconds the writer spent writing files
+	 */
+	public long getBusyNanos() {
+		return busyNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "Writer " + writerName + ": files=" + filesWritten + ", bytes=" + bytesWritten + ", failures="
+				+ failures + ", busy=" + busyNanos / 1000000 + " ms";
+	}
+}
@@ -0,0 +1,111 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import provider.FileProviderDurabilityModes;
+import provider.data.FileProviderData;
+
+/**
+ * Streams all files into a single archive in the output directory, named
+ * "&lt;start millis&gt;-&lt;runner id&gt;" with the extension of the format. The
+ * archive is a single stream, so the writer threads append whole batches one
+ * after another. The archive is synced when the sink is closed.
+ *
+ * @author Ivan Ivanov
+ */
+public abstract class ArchiveFileSink implements FileSink {
+
+	private static final Logger log = Logger.getLogger(ArchiveFileSink.class);
+
+	private SinkContext context;
+	private Path archive;
+	private boolean opened;
+
+	/**
+	 * @see provider.sink.FileSink#open(provider.sink.SinkContext)
+	 */
+	@Override
+	public void open(SinkContext context) throws IOException {
+		this.context = context;
+		if (context.getProperties().getDurabilityMode() != FileProviderDurabilityModes.NONE) {
+			log.warn("Durability mode " + context.getProperties().getDurabilityMode() + " is not applied to archives."
+					+ " The archive is synced when the provider stops.");
+		}
+		Files.createDirectories(context.getOutputDirectory());
+		this.archive = context.getOutputDirectory()
+				.resolve(context.getStartTime() + "-" + context.getRunnerId() + this.getExtension());
+		this.openArchive(this.archive);
+		this.opened = true;
+	}
+
+	/**
+	 * @see provider.sink.FileSink#write(java.util.List)
+	 */
+	@Override
+	public synchronized void write(List<FileProviderData> batch) {
+		for (FileProviderData providerData : batch) {
+			long timeMillis = System.currentTimeMillis();
+			String fileName = this.context.nextFileName(timeMillis, providerData.getFileName());
+			long start = System.nanoTime();
+			try {
+				long written = this.appendEntry(fileName, timeMillis, providerData);
+				this.context.written(providerData, fileName, written, System.nanoTime() - start);
+			} catch (IOException | RuntimeException e) {
+				this.context.failed(providerData, e);
+			} finally {
+				providerData.release();
+			}
+		}
+	}
+
+	/**
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.opened) {
+			this.opened = false;
+			this.closeArchive();
+			log.info("Archive: " + this.archive.toAbsolutePath());
+		}
+	}
+
+	/**
+	 * @return extension of the archive file, e.g. ".tar"
+	 */
+	protected abstract String getExtension();
+
+	/**
+	 * Creates the archive. It must not exist.
+	 *
+	 * @param archive
+	 * @throws IOException
+	 */
+	protected abstract void openArchive(Path archive) throws IOException;
+
+	/**
+	 * Appends a file to the archive. Called by one writer thread at a time.
+	 *
+	 * @param fileName
+	 *            name of the entry
+	 * @param timeMillis
+	 *            modification time of the entry
+	 * @param providerData
+	 * @return count of the written bytes of the content
+	 * @throws IOException
+	 */
+	protected abstract long appendEntry(String fileName, long timeMillis, FileProviderData providerData)
+			throws IOException;
+
+	/**
+	 * Completes, syncs and closes the archive.
+	 *
+	 * @throws IOException
+	 */
+	protected abstract void closeArchive() throws IOException;
+}
@@ -0,0 +1,100 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import provider.FileProviderDurabilityModes;
+import provider.data.FileProviderData;
+import provider.properties.FileProviderProperties;
+
+/**
+ * Writes each file into its own file in the output directory through an
+ * {@link AsyncFileWriter}. The writer threads only submit the writes, the
+ * files are reported and released when their writes complete.
+ *
+ * @author Ivan Ivanov
+ */
+public class AsyncFileSink implements FileSink {
+
+	private static final Logger log = Logger.getLogger(AsyncFileSink.class);
+
+	private static final long COMPLETION_TIMEOUT = 60 * 1000L;
+
+	private SinkContext context;
+	private OutputLayout layout;
+	private AsyncFileWriter asyncWriter;
+
+	/**
+	 * @see provider.sink.FileSink#open(provider.sink.SinkContext)
+	 */
+	@Override
+	public void open(SinkContext context) throws IOException {
+		FileProviderProperties properties = context.getProperties();
+		this.context = context;
+		this.layout = new OutputLayout(context.getOutputDirectory(), properties.getShardingStrategy(),
+				properties.getShardingFanout(), TimeUnit.SECONDS.toMillis(properties.getShardingTimeBucketSeconds()));
+		FileProviderDurabilityModes durabilityMode = properties.getDurabilityMode();
+		if (durabilityMode == FileProviderDurabilityModes.GROUP) {
+			log.warn("Durability mode " + durabilityMode + " is applied as " + FileProviderDurabilityModes.FILE
+					+ " to asynchronous writes.");
+		}
+		this.asyncWriter = new AsyncFileWriter(properties.getAsyncMaxInFlight(), properties.getAsyncIoThreads(),
+				durabilityMode != FileProviderDurabilityModes.NONE, new AsyncFileWriter.Completion() {
+					@Override
+					public void completed(FileProviderData providerData, Path path, long written, long latencyNanos) {
+						context.written(providerData, path.getFileName().toString(), written, latencyNanos);
+					}
+
+					@Override
+					public void failed(FileProviderData providerData, Throwable error) {
+						context.failed(providerData, error);
+					}
+				});
+		this.layout.createDirectories();
+	}
+
+	/**
+	 * Submits the writes of the batch. Blocks while the maximum count of writes
+	 * is in flight.
+	 *
+	 * @see provider.sink.FileSink#write(java.util.List)
+	 */
+	@Override
+	public void write(List<FileProviderData> batch) {
+		for (int i = 0; i < batch.size(); i++) {
+			FileProviderData providerData = batch.get(i);
+			long timeMillis = System.currentTimeMillis();
+			String fileName = this.context.nextFileName(timeMillis, providerData.getFileName());
+			try {
+				this.asyncWriter.write(this.layout.resolve(fileName, timeMillis), providerData);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				for (int j = i; j < batch.size(); j++) {
+					this.context.failed(batch.get(j), e);
+					batch.get(j).release();
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Waits for the writes in flight.
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		if (this.asyncWriter == null) {
+			return;
+		}
+		if (!this.asyncWriter.awaitCompletion(COMPLETION_TIMEOUT)) {
+			log.warn("Asynchronous writes did not finish in " + COMPLETION_TIMEOUT / 1000 + " seconds.");
+		}
+		this.asyncWriter.close();
+	}
+}
@@ -0,0 +1,283 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import provider.data.FileProviderData;
+
+/**
+ * Writes each file into its own file through an {@link AsynchronousFileChannel}.
+ * The caller only submits the write, so a single thread can keep many writes
+ * in flight. The count of the writes in flight is bounded, submitting blocks
+ * while the maximum is reached. When a write completes or fails the
+ * {@link Completion} is called from an I/O thread and the data is released.
+ * <p>
+ * Platforms without native asynchronous file I/O, e.g. Linux, run the writes
+ * on the I/O threads of the writer, so the count of the I/O threads is the
+ * count of the writes actually running at the same time. It defaults to the
+ * maximum count of writes in flight.
+ * <p>
+ * Zeros allocated SPARSE are written as the last byte only.
+ *
+ * @author Ivan Ivanov
+ */
+public class AsyncFileWriter {
+
+	private static final Logger log = Logger.getLogger(AsyncFileWriter.class);
+
+	private static final Set<StandardOpenOption> OPEN_OPTIONS = Collections
+			.unmodifiableSet(EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+
+	/**
+	 * Receives the outcome of each write. Called from an I/O thread.
+	 *
+	 * @author Ivan Ivanov
+	 */
+	public interface Completion {
+
+		/**
+		 * @param providerData
+		 *            the written file, released after the call
+		 * @param path
+		 *            where the file was written
+		 * @param written
+		 *            count of the written bytes
+		 * @param latencyNanos
+		 *            time from the submission until the file was written
+		 */
+		void completed(FileProviderData providerData, Path path, long written, long latencyNanos);
+
+		/**
+		 * @param providerData
+		 *            the file, released after the call
+		 * @param error
+		 */
+		void failed(FileProviderData providerData, Throwable error);
+	}
+
+	private final int maxInFlight;
+	private final Semaphore inFlight;
+	private final boolean sync;
+	private final Completion completion;
+	private final ExecutorService ioThreads;
+
+	/**
+	 * @param maxInFlight
+	 *            maximum count of writes in flight
+	 * @param ioThreadCount
+	 *            count of the threads running and completing the writes
+	 * @param sync
+	 *            true if each file is synced before its write completes
+	 * @param completion
+	 *            receives the outcome of each write
+	 */
+	public AsyncFileWriter(int maxInFlight, int ioThreadCount, boolean sync, Completion completion) {
+		this.maxInFlight = maxInFlight;
+		this.inFlight = new Semaphore(maxInFlight);
+		this.sync = sync;
+		this.completion = completion;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.ioThreads = Executors.newFixedThreadPool(ioThreadCount, runnable -> {
+			Thread thread = new Thread(runnable, "async-writer-" + threadCount.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Submits the write of a file. It must not exist. Blocks while the maximum
+	 * count of writes is in flight.
+	 *
+	 * @param path
+	 * @param providerData
+	 * @throws InterruptedException
+	 *             when interrupted while waiting for a write to complete, the
+	 *             data is not released then
+	 */
+	public void write(Path path, FileProviderData providerData) throws InterruptedException {
+		this.inFlight.acquire();
+		long start = System.nanoTime();
+		AsynchronousFileChannel target = null;
+		try {
+			target = AsynchronousFileChannel.open(path, OPEN_OPTIONS, this.ioThreads);
+			long size = providerData.getContentLength();
+			switch (providerData.getAllocationMode()) {
+				case SPARSE:
+					new PendingWrite(path, target, ByteBuffer.allocate(size > 0 ? 1 : 0), providerData, start,
+							Math.max(size - 1, 0)).next();
+					break;
+				case WRITE:
+				default:
+					new PendingWrite(path, target, contentOf(providerData), providerData, start, 0).next();
+			}
+		} catch (IOException | RuntimeException e) {
+			closeQuietly(target);
+			this.finish(providerData, path, null, 0, e, start);
+		}
+	}
+
+	/**
+	 * Waits until every submitted write is completed.
+	 *
+	 * @param timeoutMillis
+	 * @return true if no write is in flight
+	 */
+	public boolean awaitCompletion(long timeoutMillis) {
+		try {
+			if (this.inFlight.tryAcquire(this.maxInFlight, timeoutMillis, TimeUnit.MILLISECONDS)) {
+				this.inFlight.release(this.maxInFlight);
+				return true;
+			}
+		} catch (InterruptedException e) {
+			log.error(e.getMessage());
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	/**
+	 * Stops the I/O threads. Writes still in flight are abandoned.
+	 */
+	public void close() {
+		this.ioThreads.shutdownNow();
+	}
+
+	/**
+	 * @return count of the writes in flight
+	 */
+	public int getInFlight() {
+		return this.maxInFlight - this.inFlight.availablePermits();
+	}
+
+	/**
+	 * The content of data referring to a source file is mapped, asynchronous
+	 * channels can not transfer from another channel. Streamed content is
+	 * written through a chunk refilled after each write.
+	 */
+	private static ByteBuffer contentOf(FileProviderData providerData) throws IOException {
+		if (providerData.getContentStream() != null) {
+			ByteBuffer chunk = ByteBuffer.allocate(
+					(int) Math.min(FileProviderData.STREAM_CHUNK_SIZE, Math.max(providerData.getContentLength(), 1)));
+			nextChunk(chunk, providerData, 0);
+			return chunk;
+		}
+		FileChannel source = providerData.getSourceChannel();
+		if (source == null) {
+			return providerData.getContentBuffer();
+		}
+		return source.map(FileChannel.MapMode.READ_ONLY, 0, providerData.getContentLength());
+	}
+
+	/**
+	 * Refills the chunk with the streamed content following the position.
+	 */
+	private static void nextChunk(ByteBuffer chunk, FileProviderData providerData, long position) throws IOException {
+		chunk.clear();
+		chunk.limit((int) Math.min(chunk.capacity(), providerData.getContentLength() - position));
+		providerData.readChunk(chunk);
+		chunk.flip();
+	}
+
+	private void finish(FileProviderData providerData, Path path, AsynchronousFileChannel target, long written,
+			Throwable error, long start) {
+		try {
+			if (error == null && this.sync) {
+				target.force(true);
+			}
+		} catch (IOException e) {
+			error = e;
+		} finally {
+			closeQuietly(target);
+		}
+		try {
+			if (error == null) {
+				this.completion.completed(providerData, path, written, System.nanoTime() - start);
+			} else {
+				this.completion.failed(providerData, error);
+			}
+		} catch (RuntimeException e) {
+			log.error("Completion of " + providerData.getFileName() + " failed.", e);
+		} finally {
+			providerData.release();
+			this.inFlight.release();
+		}
+	}
+
+	private static void closeQuietly(AsynchronousFileChannel channel) {
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			log.error("Failed to close an asynchronously written file.", e);
+		}
+	}
+
+	/**
+	 * A write in flight. Partial writes are continued from the completion
+	 * handler until the whole content is written. The chunk of streamed
+	 * content is refilled there as well.
+	 */
+	private class PendingWrite implements CompletionHandler<Integer, Void> {
+		private final Path path;
+		private final AsynchronousFileChannel target;
+		private final ByteBuffer content;
+		private final FileProviderData providerData;
+		private final long start;
+		private long position;
+
+		PendingWrite(Path path, AsynchronousFileChannel target, ByteBuffer content, FileProviderData providerData,
+				long start, long position) {
+			this.path = path;
+			this.target = target;
+			this.content = content;
+			this.providerData = providerData;
+			this.start = start;
+			this.position = position;
+		}
+
+		void next() {
+			this.target.write(this.content, this.position, null, this);
+		}
+
+		@Override
+		public void completed(Integer result, Void attachment) {
+			this.position += result;
+			boolean streamed = this.providerData.getContentStream() != null
+					&& this.position < this.providerData.getContentLength();
+			if (this.content.hasRemaining() || streamed) {
+				try {
+					if (!this.content.hasRemaining()) {
+						nextChunk(this.content, this.providerData, this.position);
+					}
+					this.next();
+				} catch (IOException | RuntimeException e) {
+					this.failed(e, attachment);
+				}
+				return;
+			}
+			finish(this.providerData, this.path, this.target, this.position, null, this.start);
+		}
+
+		@Override
+		public void failed(Throwable error, Void attachment) {
+			finish(this.providerData, this.path, this.target, this.position, error, this.start);
+		}
+	}
+}
@@ -0,0 +1,279 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import provider.FileProviderDurabilityModes;
+import provider.data.FileProviderData;
+import provider.metrics.RunnerMetrics;
+
+/**
+ * Writes each file into its own file on the disk and syncs it according to
+ * the {@link FileProviderDurabilityModes}. With GROUP the files written by a
+ * writer thread stay open in a batch taken by the thread. The thread puts the
+ * batch back when it flushes, so a thread writing a single file leaves it for
+ * the next one. When the batch is full or its oldest file reaches the maximum
+ * age, every file of the batch is synced and closed and each of their
+ * directories is synced once. The time of the
+ * syncs is recorded as sync latency. Each file is reported to the
+ * {@link SinkContext} once it is durable, a batched file when its batch is
+ * synced, so a failed sync is reported as the failure of that file.
+ *
+ * @author Ivan Ivanov
+ */
+public class DurableFileWriter {
+
+	private static final Logger log = Logger.getLogger(DurableFileWriter.class);
+
+	private final FileProviderDurabilityModes mode;
+	private final int groupFiles;
+	private final long groupNanos;
+	private final SinkContext context;
+	private final RunnerMetrics metrics;
+	private final WriterStates<Batch> batches;
+	private volatile boolean directorySyncSupported;
+
+	/**
+	 * @param mode
+	 *            {@link FileProviderDurabilityModes}
+	 * @param groupFiles
+	 *            maximum count of files in a GROUP batch
+	 * @param groupMillis
+	 *            maximum age of a GROUP batch in milliseconds
+	 * @param context
+	 *            receives the written and failed files, its metrics record
+	 *            the sync latency
+	 */
+	public DurableFileWriter(FileProviderDurabilityModes mode, int groupFiles, long groupMillis, SinkContext context) {
+		this.mode = mode;
+		this.groupFiles = groupFiles;
+		this.groupNanos = TimeUnit.MILLISECONDS.toNanos(groupMillis);
+		this.context = context;
+		this.metrics = context.getMetrics();
+		this.batches = new WriterStates<>();
+		this.directorySyncSupported = true;
+	}
+
+	/**
+	 * Writes the file, it must not exist. The file is reported as written
+	 * when it is synced according to the durability mode.
+	 *
+	 * @param path
+	 * @param fileName
+	 *            unique name of the file
+	 * @param providerData
+	 * @throws IOException
+	 *             when the file could not be written, it is not reported then
+	 */
+	public void write(Path path, String fileName, FileProviderData providerData) throws IOException {
+		long start = System.nanoTime();
+		FileChannel target = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		boolean batched = false;
+		long written;
+		try {
+			written = writeContent(target, providerData);
+			if (this.mode == FileProviderDurabilityModes.FILE) {
+				long syncStart = System.nanoTime();
+				target.force(true);
+				this.syncDirectory(path.toAbsolutePath().getParent());
+				this.metrics.recordSync(System.nanoTime() - syncStart);
+			} else if (this.mode == FileProviderDurabilityModes.GROUP) {
+				this.takeBatch().add(new PendingFile(target, path, fileName, written, System.nanoTime() - start,
+						providerData));
+				batched = true;
+			}
+		} finally {
+			if (!batched) {
+				target.close();
+			}
+		}
+		if (!batched) {
+			this.context.written(providerData, fileName, written, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Syncs the batch of the calling writer thread if it is full or too old
+	 * and puts it back. When the writer finishes, the batches left by the
+	 * threads no longer writing are synced as well.
+	 *
+	 * @param finished
+	 *            true when the writer thread exits or the writers shut down
+	 */
+	public void flush(boolean finished) {
+		if (this.mode != FileProviderDurabilityModes.GROUP) {
+			return;
+		}
+		if (finished) {
+			for (Batch batch : this.batches.drain()) {
+				batch.commit();
+			}
+			return;
+		}
+		Batch batch = this.takeBatch();
+		if (batch.isDue()) {
+			batch.commit();
+		}
+		this.batches.putBack();
+	}
+
+	/**
+	 * Writes the content of the file. Data referring to a source file is
+	 * transferred channel to channel, which lets the kernel copy the bytes
+	 * without passing them through the heap. Streamed content is written chunk
+	 * by chunk. Zeros allocated SPARSE are not written, only the last byte.
+	 */
+	private static long writeContent(FileChannel target, FileProviderData providerData) throws IOException {
+		long size = providerData.getContentLength();
+		switch (providerData.getAllocationMode()) {
+			case SPARSE:
+				ByteBuffer last = ByteBuffer.allocate(size > 0 ? 1 : 0);
+				while (last.hasRemaining()) {
+					target.write(last, size - 1);
+				}
+				return size;
+			case WRITE:
+			default:
+				break;
+		}
+		if (providerData.getContentStream() != null) {
+			return providerData.transferStream(target);
+		}
+		FileChannel source = providerData.getSourceChannel();
+		if (source == null) {
+			ByteBuffer content = providerData.getContentBuffer();
+			while (content.hasRemaining()) {
+				target.write(content);
+			}
+			return providerData.getContentLength();
+		}
+		long position = 0;
+		while (position < size) {
+			long transferred = source.transferTo(position, size - position, target);
+			if (transferred <= 0) {
+				throw new IOException("Source of " + providerData.getFileName() + " ended after " + position + " bytes.");
+			}
+			position += transferred;
+		}
+		return position;
+	}
+
+	private Batch takeBatch() {
+		Batch batch = this.batches.take();
+		if (batch == null) {
+			batch = new Batch();
+			this.batches.bind(batch);
+		}
+		return batch;
+	}
+
+	private void syncDirectory(Path directory) {
+		if (!this.directorySyncSupported || directory == null) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			this.directorySyncSupported = false;
+			log.warn("Directories can not be synced on this platform, only the files are synced.", e);
+		}
+	}
+
+	/**
+	 * Written file waiting for the sync of its batch.
+	 */
+	private static class PendingFile {
+		private final FileChannel channel;
+		private final Path path;
+		private final String fileName;
+		private final long bytes;
+		private final long latencyNanos;
+		private final boolean scheduled;
+		private final long scheduledTime;
+		private IOException error;
+
+		PendingFile(FileChannel channel, Path path, String fileName, long bytes, long latencyNanos,
+				FileProviderData providerData) {
+			this.channel = channel;
+			this.path = path;
+			this.fileName = fileName;
+			this.bytes = bytes;
+			this.latencyNanos = latencyNanos;
+			this.scheduled = providerData.isScheduled();
+			this.scheduledTime = providerData.getScheduledTime();
+		}
+	}
+
+	/**
+	 * Files written by the writer threads and not synced yet.
+	 */
+	private class Batch {
+		private final List<PendingFile> files = new ArrayList<>();
+		private final Set<Path> directories = new LinkedHashSet<>();
+		private long firstNanos;
+
+		void add(PendingFile file) {
+			if (this.files.isEmpty()) {
+				this.firstNanos = System.nanoTime();
+			}
+			this.files.add(file);
+			this.directories.add(file.path.toAbsolutePath().getParent());
+		}
+
+		boolean isDue() {
+			return !this.files.isEmpty() && (this.files.size() >= groupFiles
+					|| System.nanoTime() - this.firstNanos >= groupNanos);
+		}
+
+		/**
+		 * Syncs the files, then reports each of them as written or, when its
+		 * sync failed, as failed.
+		 */
+		void commit() {
+			if (this.files.isEmpty()) {
+				return;
+			}
+			long start = System.nanoTime();
+			for (PendingFile file : this.files) {
+				try {
+					file.channel.force(true);
+				} catch (IOException e) {
+					file.error = e;
+				} finally {
+					try {
+						file.channel.close();
+					} catch (IOException e) {
+						log.error("Failed to close " + file.path, e);
+					}
+				}
+			}
+			for (Path directory : this.directories) {
+				syncDirectory(directory);
+			}
+			long end = System.nanoTime();
+			metrics.recordSync(end - start);
+			for (PendingFile file : this.files) {
+				if (file.error != null) {
+					context.failed(file.path.toString(), file.error);
+					continue;
+				}
+				context.written(file.fileName, file.bytes, file.latencyNanos);
+				if (file.scheduled) {
+					metrics.recordScheduledLatency(end - file.scheduledTime);
+				}
+			}
+			this.files.clear();
+			this.directories.clear();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package provider.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import provider.data.FileProviderData;
+
+/**
+ * Stores the generated files. The runner opens the sink before the first file
+ * and closes it after the writer threads are finished.
+ * <p>
+ * {@link #write(List)} is called concurrently by the writer threads, each call
+ * with the files a thread took from the queue at once. The sink owns the files
+ * of a batch: it reports each of them to the {@link SinkContext} as written or
+ * failed and releases it with {@link FileProviderData#release()} once it is
+ * done with it.
+ * <p>
+ * The content of a file is in memory, in a source file or, for large files, a
+ * stream that can be read only once, see
+ * {@link FileProviderData#getContentStream()}.
+ * <p>
+ * Custom sinks are configured by their class name and need a public constructor
+ * without parameters.
+ *
+ * @author Ivan Ivanov
+ */
+public interface FileSink extends Closeable {
+
+	/**
+	 * Prepares the sink, e.g. creates the directories or connects to the
+	 * target.
+	 *
+	 * @param context
+	 *            configuration of the sink and receiver of the outcome of the
+	 *            writes
+	 * @throws IOException
+	 *             when the sink could not be prepared
+	 */
+	void open(SinkContext context) throws IOException;
+
+	/**
+	 * Writes a batch of files.
+	 *
+	 * @param batch
+	 *            files taken by a writer thread, the list is reused after the
+	 *            call
+	 */
+	void write(List<FileProviderData> batch);
+
+	/**
+	 * Completes the work deferred by the previous writes of the calling writer
+	 * thread, e.g. pending syncs. Called after each batch, when no file is
+	 * waiting and before the writer thread exits or the writers shut down.
+	 *
+	 * @param finished
+	 *            true when the writer thread exits or the writers shut down
+	 */
+	default void flush(boolean finished) {
+	}
+
+	/**
+	 * Completes the pending writes and releases the resources of the sink.
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	void close() throws IOException;
+}
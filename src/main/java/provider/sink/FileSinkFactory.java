@@ -0,0 +1,69 @@
+package provider.sink;
+
+import provider.FileProviderOutputModes;
+import provider.exception.FileProviderPropertiesValidationException;
+import provider.properties.FileProviderProperties;
+
+/**
+ * Provides the {@link FileSink} configured by the properties.
+ *
+ * @author Ivan Ivanov
+ */
+public final class FileSinkFactory {
+
+	private FileSinkFactory() {
+		// stateless
+	}
+
+	/**
+	 * @param properties
+	 * @return instance of the custom sink class if defined, otherwise the sink
+	 *         of the output mode
+	 */
+	public static FileSink createFileSink(FileProviderProperties properties) {
+		String sinkClass = properties.getSinkClass();
+		if (sinkClass != null) {
+			return createCustomSink(sinkClass);
+		}
+		return createFileSink(properties.getOutputMode());
+	}
+
+	/**
+	 * @param outputMode
+	 * @return {@link FileSink} of the output mode
+	 */
+	public static FileSink createFileSink(FileProviderOutputModes outputMode) {
+		switch (outputMode) {
+			case SEGMENT:
+				return new SegmentFileSink();
+			case ASYNC:
+				return new AsyncFileSink();
+			case TAR:
+				return new TarFileSink();
+			case ZIP:
+				return new ZipFileSink();
+			case NULL:
+				return new NullFileSink();
+			case TCP:
+				return new TcpFileSink();
+			case FILES:
+			default:
+				return new LocalFileSink();
+		}
+	}
+
+	/**
+	 * @param sinkClass
+	 *            name of a class implementing {@link FileSink} with a public
+	 *            constructor without parameters
+	 * @return new instance of the class
+	 */
+	public static FileSink createCustomSink(String sinkClass) {
+		try {
+			return Class.forName(sinkClass).asSubclass(FileSink.class).getConstructor().newInstance();
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			throw new FileProviderPropertiesValidationException(
+					FileProviderPropertiesValidationException.EXCEPTION_WRONG_SINK_CLASS);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import provider.data.FileProviderData;
+import provider.properties.FileProviderProperties;
+
+/**
+ * Writes each file into its own file in the output directory. The files are
+ * spread over the subdirectories of the {@link OutputLayout} and synced by the
+ * {@link DurableFileWriter}.
+ *
+ * @author Ivan Ivanov
+ */
+public class LocalFileSink implements FileSink {
+
+	private SinkContext context;
+	private OutputLayout layout;
+	private DurableFileWriter fileWriter;
+
+	/**
+	 * @see provider.sink.FileSink#open(provider.sink.SinkContext)
+	 */
+	@Override
+	public void open(SinkContext context) throws IOException {
+		FileProviderProperties properties = context.getProperties();
+		this.context = context;
+		this.layout = new OutputLayout(context.getOutputDirectory(), properties.getShardingStrategy(),
+				properties.getShardingFanout(), TimeUnit.SECONDS.toMillis(properties.getShardingTimeBucketSeconds()));
+		this.fileWriter = new DurableFileWriter(properties.getDurabilityMode(), properties.getDurabilityGroupFiles(),
+				properties.getDurabilityGroupMillis(), context);
+		this.layout.createDirectories();
+	}
+
+	/**
+	 * @see provider.sink.FileSink#write(java.util.List)
+	 */
+	@Override
+	public void write(List<FileProviderData> batch) {
+		for (FileProviderData providerData : batch) {
+			long timeMillis = System.currentTimeMillis();
+			String fileName = this.context.nextFileName(timeMillis, providerData.getFileName());
+			try {
+				this.fileWriter.write(this.layout.resolve(fileName, timeMillis), fileName, providerData);
+			} catch (IOException | RuntimeException e) {
+				this.context.failed(providerData, e);
+			} finally {
+				providerData.release();
+			}
+		}
+	}
+
+	/**
+	 * @see provider.sink.FileSink#flush(boolean)
+	 */
+	@Override
+	public void flush(boolean finished) {
+		this.fileWriter.flush(finished);
+	}
+
+	/**
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		// the files are closed by the writer threads
+	}
+}
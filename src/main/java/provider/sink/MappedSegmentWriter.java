@@ -0,0 +1,219 @@
+package provider.sink;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import provider.data.FileProviderData;
+
+/**
+ * Stores the generated files by appending them into large, pre-allocated and
+ * memory mapped segment files instead of creating a file for each of them.
+ * Every stored file is recorded in an index with its segment, offset, length
+ * and name. The files can be exported to separate files later with
+ * {@link #export(Path, Path)}.
+ * <p>
+ * The space in the current segment is reserved under a lock, the content is
+ * copied afterwards, so writers can fill the same segment in parallel.
+ *
+ * @author Ivan Ivanov
+ */
+public class MappedSegmentWriter implements Closeable {
+
+	private static final Logger log = Logger.getLogger(MappedSegmentWriter.class);
+
+	private static final String SEGMENT_SUFFIX = ".dat";
+	private static final String INDEX_SUFFIX = "-segments.idx";
+	private static final String INDEX_SEPARATOR = ";";
+
+	/**
+	 * Single memory mapped segment file.
+	 */
+	private static class Segment {
+		private final String fileName;
+		private final FileChannel channel;
+		private final MappedByteBuffer buffer;
+		private long position;
+
+		Segment(String fileName, FileChannel channel, MappedByteBuffer buffer) {
+			this.fileName = fileName;
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+	}
+
+	private final Path directory;
+	private final String prefix;
+	private final long segmentSize;
+	private final List<Segment> segments;
+	private final BufferedWriter index;
+	private Segment current;
+
+	/**
+	 * @param directory
+	 *            directory where the segments and the index are created
+	 * @param prefix
+	 *            prefix of the segment and index file names
+	 * @param segmentSize
+	 *            size of each segment in bytes
+	 * @throws IOException
+	 *             when the index could not be created
+	 */
+	public MappedSegmentWriter(Path directory, String prefix, long segmentSize) throws IOException {
+		this.directory = directory;
+		this.prefix = prefix;
+		this.segmentSize = segmentSize;
+		this.segments = new ArrayList<>();
+		this.index = Files.newBufferedWriter(directory.resolve(prefix + INDEX_SUFFIX), StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Appends the file to the current segment.
+	 *
+	 * @param providerData
+	 * @param fileName
+	 *            name recorded in the index
+	 * @return count of the written bytes
+	 * @throws IOException
+	 */
+	public long append(FileProviderData providerData, String fileName) throws IOException {
+		long length = providerData.getContentLength();
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("File " + fileName + " is too large for a segment: " + length + " bytes.");
+		}
+		Segment segment;
+		long offset;
+		synchronized (this) {
+			if (this.current == null || this.current.position + length > this.current.buffer.capacity()) {
+				this.current = this.createSegment(Math.max(this.segmentSize, length));
+			}
+			segment = this.current;
+			offset = segment.position;
+			segment.position += length;
+		}
+
+		ByteBuffer target = segment.buffer.duplicate();
+		target.position((int) offset);
+		target.limit((int) (offset + length));
+		FileChannel source = providerData.getSourceChannel();
+		if (providerData.getContentStream() != null) {
+			providerData.readChunk(target);
+		} else if (source == null) {
+			target.put(providerData.getContentBuffer());
+		} else {
+			long position = 0;
+			while (target.hasRemaining()) {
+				int read = source.read(target, position);
+				if (read <= 0) {
+					throw new IOException("Source of " + fileName + " ended after " + position + " bytes.");
+				}
+				position += read;
+			}
+		}
+
+		synchronized (this.index) {
+			this.index.write(segment.fileName + INDEX_SEPARATOR + offset + INDEX_SEPARATOR + length + INDEX_SEPARATOR
+					+ fileName);
+			this.index.newLine();
+		}
+		return length;
+	}
+
+	/**
+	 * Forces the segments to the storage, cuts the unused space of each
+	 * segment and closes the index. A rolled over segment may still be filled
+	 * by a writer until then, so its space is cut here as well.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		synchronized (this.index) {
+			this.index.close();
+		}
+		for (Segment segment : this.segments) {
+			segment.buffer.force();
+			try {
+				segment.channel.truncate(segment.position);
+			} catch (IOException e) {
+				log.warn("Could not cut the unused space of " + segment.fileName, e);
+			}
+			segment.channel.close();
+		}
+		this.segments.clear();
+		this.current = null;
+	}
+
+	private Segment createSegment(long size) throws IOException {
+		String fileName = this.prefix + "-" + String.format("%06d", this.segments.size()) + SEGMENT_SUFFIX;
+		log.debug("Creating segment " + fileName + " with " + size + " bytes.");
+		FileChannel channel = FileChannel.open(this.directory.resolve(fileName), StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		Segment segment = new Segment(fileName, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+		this.segments.add(segment);
+		return segment;
+	}
+
+	/**
+	 * Exports the files stored in segments to separate files.
+	 *
+	 * @param indexFile
+	 *            index created by the writer
+	 * @param targetDirectory
+	 *            directory for the exported files
+	 * @return count of the exported files
+	 * @throws IOException
+	 */
+	public static int export(Path indexFile, Path targetDirectory) throws IOException {
+		Path segmentDirectory = indexFile.toAbsolutePath().getParent();
+		int exported = 0;
+		String openedSegment = null;
+		FileChannel segmentChannel = null;
+		try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] entry = line.split(INDEX_SEPARATOR, 4);
+				if (entry.length < 4) {
+					continue;
+				}
+				if (!entry[0].equals(openedSegment)) {
+					if (segmentChannel != null) {
+						segmentChannel.close();
+					}
+					segmentChannel = FileChannel.open(segmentDirectory.resolve(entry[0]), StandardOpenOption.READ);
+					openedSegment = entry[0];
+				}
+				long offset = Long.parseLong(entry[1]);
+				long length = Long.parseLong(entry[2]);
+				try (FileChannel target = FileChannel.open(targetDirectory.resolve(entry[3]),
+						StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+					long position = 0;
+					while (position < length) {
+						long transferred = segmentChannel.transferTo(offset + position, length - position, target);
+						if (transferred <= 0) {
+							throw new IOException("Segment " + entry[0] + " ended before the end of " + entry[3]);
+						}
+						position += transferred;
+					}
+				}
+				exported++;
+			}
+		} finally {
+			if (segmentChannel != null) {
+				segmentChannel.close();
+			}
+		}
+		return exported;
+	}
+}
@@ -0,0 +1,43 @@
+package provider.sink;
+
+import java.util.List;
+
+import provider.data.FileProviderData;
+
+/**
+ * Discards the files. Each file is reported as written with its size, so the
+ * generation can be measured without any storage.
+ *
+ * @author Ivan Ivanov
+ */
+public class NullFileSink implements FileSink {
+
+	private SinkContext context;
+
+	/**
+	 * @see provider.sink.FileSink#open(provider.sink.SinkContext)
+	 */
+	@Override
+	public void open(SinkContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * @see provider.sink.FileSink#write(java.util.List)
+	 */
+	@Override
+	public void write(List<FileProviderData> batch) {
+		for (FileProviderData providerData : batch) {
+			this.context.written(providerData, providerData.getFileName(), providerData.getContentLength(), 0);
+			providerData.release();
+		}
+	}
+
+	/**
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		// nothing to release
+	}
+}
@@ -0,0 +1,91 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import provider.FileProviderShardingStrategies;
+
+/**
+ * Places the written files in the output directory according to the
+ * {@link FileProviderShardingStrategies}. All subdirectories are created by
+ * {@link #createDirectories()} at the start, so writing a file never creates a
+ * directory.
+ *
+ * @author Ivan Ivanov
+ */
+public class OutputLayout {
+
+	private final Path root;
+	private final FileProviderShardingStrategies strategy;
+	private final long bucketMillis;
+	private final Path[] shards;
+
+	/**
+	 * @param root
+	 *            output directory
+	 * @param strategy
+	 *            {@link FileProviderShardingStrategies}
+	 * @param fanout
+	 *            count of the subdirectories, ignored with NONE
+	 * @param bucketMillis
+	 *            length of a time bucket in milliseconds, used with TIME
+	 */
+	public OutputLayout(Path root, FileProviderShardingStrategies strategy, int fanout, long bucketMillis) {
+		this.root = root;
+		this.strategy = strategy;
+		this.bucketMillis = bucketMillis;
+		if (strategy == FileProviderShardingStrategies.NONE) {
+			this.shards = new Path[] { root };
+		} else {
+			this.shards = new Path[fanout];
+			int width = Integer.toHexString(Math.max(fanout - 1, 1)).length();
+			for (int i = 0; i < fanout; i++) {
+				this.shards[i] = root.resolve(String.format("%0" + width + "x", i));
+			}
+		}
+	}
+
+	/**
+	 * Creates the output directory and all its subdirectories.
+	 *
+	 * @throws IOException
+	 */
+	public void createDirectories() throws IOException {
+		Files.createDirectories(this.root);
+		for (Path shard : this.shards) {
+			Files.createDirectories(shard);
+		}
+	}
+
+	/**
+	 * @param fileName
+	 *            unique name of the file
+	 * @param timeMillis
+	 *            time of the write
+	 * @return path of the file in its subdirectory
+	 */
+	public Path resolve(String fileName, long timeMillis) {
+		return this.shardOf(fileName, timeMillis).resolve(fileName);
+	}
+
+	/**
+	 * @return output directory
+	 */
+	public Path getRoot() {
+		return root;
+	}
+
+	private Path shardOf(String fileName, long timeMillis) {
+		switch (this.strategy) {
+			case HASH:
+				int hash = fileName.hashCode();
+				return this.shards[Math.floorMod(hash ^ (hash >>> 16), this.shards.length)];
+			case TIME:
+				return this.shards[(int) Math.floorMod(timeMillis / this.bucketMillis, (long) this.shards.length)];
+			case NONE:
+			default:
+				return this.root;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import provider.FileProviderDurabilityModes;
+import provider.data.FileProviderData;
+import provider.properties.FileProviderProperties;
+
+/**
+ * Appends the files into memory mapped segments of a
+ * {@link MappedSegmentWriter}. The segments and the index are named
+ * "&lt;start millis&gt;-&lt;runner id&gt;", so runners sharing the output
+ * directory do not collide. The segments are synced when the sink is closed.
+ *
+ * @author Ivan Ivanov
+ */
+public class SegmentFileSink implements FileSink {
+
+	private static final Logger log = Logger.getLogger(SegmentFileSink.class);
+
+	private SinkContext context;
+	private MappedSegmentWriter segmentWriter;
+
+	/**
+	 * @see provider.sink.FileSink#open(provider.sink.SinkContext)
+	 */
+	@Override
+	public void open(SinkContext context) throws IOException {
+		FileProviderProperties properties = context.getProperties();
+		this.context = context;
+		if (properties.getDurabilityMode() != FileProviderDurabilityModes.NONE) {
+			log.warn("Durability mode " + properties.getDurabilityMode() + " is not applied to segments."
+					+ " The segments are synced when the provider stops.");
+		}
+		Files.createDirectories(context.getOutputDirectory());
+		this.segmentWriter = new MappedSegmentWriter(context.getOutputDirectory(),
+				context.getStartTime() + "-" + context.getRunnerId(), properties.getOutputSegmentSize());
+	}
+
+	/**
+	 * @see provider.sink.FileSink#write(java.util.List)
+	 */
+	@Override
+	public void write(List<FileProviderData> batch) {
+		for (FileProviderData providerData : batch) {
+			String fileName = this.context.nextFileName(System.currentTimeMillis(), providerData.getFileName());
+			long start = System.nanoTime();
+			try {
+				long written = this.segmentWriter.append(providerData, fileName);
+				this.context.written(providerData, fileName, written, System.nanoTime() - start);
+			} catch (IOException | RuntimeException e) {
+				this.context.failed(providerData, e);
+			} finally {
+				providerData.release();
+			}
+		}
+	}
+
+	/**
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.segmentWriter != null) {
+			this.segmentWriter.close();
+		}
+	}
+}
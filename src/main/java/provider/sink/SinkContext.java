@@ -0,0 +1,168 @@
+package provider.sink;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+import provider.data.FileProviderData;
+import provider.metrics.RunnerMetrics;
+import provider.properties.FileProviderProperties;
+
+/**
+ * Everything a {@link FileSink} gets from the runner: the properties, the
+ * unique names of the files, the metrics and the {@link SinkListener}
+ * receiving the outcome of the writes.
+ * <p>
+ * File names have the form "&lt;millis&gt;-&lt;runner id&gt;-&lt;sequence&gt;-&lt;name&gt;". The
+ * sequence is unique within the runner and the runner id separates runners
+ * writing into the same directory, so no two files get the same name.
+ *
+ * @author Ivan Ivanov
+ */
+public final class SinkContext {
+
+	private static final String NAME_SEPARATOR = "-";
+	private static final String DEFAULT_OUTPUT_DIRECTORY = "target/output/";
+
+	private final FileProviderProperties properties;
+	private final String runnerId;
+	private final long startTime;
+	private final RunnerMetrics metrics;
+	private final SinkListener listener;
+	private final AtomicLong sequence;
+
+	/**
+	 * @param properties
+	 * @param runnerId
+	 *            id of the runner in the file names
+	 * @param startTime
+	 *            start of the runner in millis
+	 * @param metrics
+	 *            metrics of the runner
+	 * @param listener
+	 *            receives the outcome of the writes
+	 */
+	public SinkContext(FileProviderProperties properties, String runnerId, long startTime, RunnerMetrics metrics,
+			SinkListener listener) {
+		this.properties = properties;
+		this.runnerId = runnerId;
+		this.startTime = startTime;
+		this.metrics = metrics;
+		this.listener = listener;
+		this.sequence = new AtomicLong();
+	}
+
+	/**
+	 * @return properties of the runner
+	 */
+	public FileProviderProperties getProperties() {
+		return properties;
+	}
+
+	/**
+	 * @return id of the runner
+	 */
+	public String getRunnerId() {
+		return runnerId;
+	}
+
+	/**
+	 * @return start of the runner in millis
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return metrics of the runner
+	 */
+	public RunnerMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return directory for the written files, target/output/ if not defined
+	 */
+	public Path getOutputDirectory() {
+		String storeDirectory = this.properties.getStoreDirectory();
+		if (storeDirectory != null && !storeDirectory.isEmpty()) {
+			return Paths.get(storeDirectory);
+		}
+		return Paths.get(DEFAULT_OUTPUT_DIRECTORY);
+	}
+
+	/**
+	 * @param timeMillis
+	 *            time of the write
+	 * @param name
+	 *            name given by the provider
+	 * @return unique name of the file
+	 */
+	public String nextFileName(long timeMillis, String name) {
+		return timeMillis + NAME_SEPARATOR + this.runnerId + NAME_SEPARATOR + this.sequence.getAndIncrement()
+				+ NAME_SEPARATOR + name;
+	}
+
+	/**
+	 * Reports a written file and records its scheduled to written latency.
+	 *
+	 * @param providerData
+	 * @param fileName
+	 *            unique name of the file
+	 * @param bytes
+	 *            count of the written bytes
+	 * @param latencyNanos
+	 *            time spent writing the file
+	 */
+	public void written(FileProviderData providerData, String fileName, long bytes, long latencyNanos) {
+		this.written(fileName, bytes, latencyNanos);
+		this.recordScheduledLatency(providerData);
+	}
+
+	/**
+	 * Reports a written file whose scheduled to written latency is recorded
+	 * separately, e.g. at the sync of its batch.
+	 *
+	 * @param fileName
+	 *            unique name of the file
+	 * @param bytes
+	 *            count of the written bytes
+	 * @param latencyNanos
+	 *            time spent writing the file
+	 */
+	public void written(String fileName, long bytes, long latencyNanos) {
+		this.listener.written(fileName, bytes, latencyNanos);
+	}
+
+	/**
+	 * @param providerData
+	 *            the file which could not be written
+	 * @param error
+	 */
+	public void failed(FileProviderData providerData, Throwable error) {
+		this.listener.failed(providerData.getFileName(), error);
+	}
+
+	/**
+	 * Reports a file which failed after it was handed over to the sink, e.g.
+	 * when its deferred sync failed.
+	 *
+	 * @param fileName
+	 *            name or path of the file
+	 * @param error
+	 */
+	public void failed(String fileName, Throwable error) {
+		this.listener.failed(fileName, error);
+	}
+
+	/**
+	 * Records the latency from the intended emission of the file until now.
+	 *
+	 * @param providerData
+	 */
+	public void recordScheduledLatency(FileProviderData providerData) {
+		if (providerData.isScheduled()) {
+			this.metrics.recordScheduledLatency(System.nanoTime() - providerData.getScheduledTime());
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package provider.sink;
+
+/**
+ * Receives the outcome of each file written by a {@link FileSink}.
+ *
+ * @author Ivan Ivanov
+ */
+public interface SinkListener {
+
+	/**
+	 * @param fileName
+	 *            name of the written file
+	 * @param bytes
+	 *            count of the written bytes
+	 * @param latencyNanos
+	 *            time spent writing the file
+	 */
+	void written(String fileName, long bytes, long latencyNanos);
+
+	/**
+	 * @param fileName
+	 *            name of the file given by the provider
+	 * @param error
+	 */
+	void failed(String fileName, Throwable error);
+}
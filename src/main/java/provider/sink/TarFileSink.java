@@ -0,0 +1,173 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import provider.data.FileProviderData;
+
+/**
+ * Streams the files into an uncompressed POSIX ustar archive. The content is
+ * written straight from the buffer of the file or transferred from its source
+ * file, only the 512 byte header of each entry is built.
+ *
+ * @author Ivan Ivanov
+ */
+public class TarFileSink extends ArchiveFileSink {
+
+	private static final int BLOCK_SIZE = 512;
+	private static final int NAME_LENGTH = 100;
+	private static final long MAX_ENTRY_SIZE = 077777777777L;
+	private static final int END_BLOCKS = 2;
+
+	private static final int MODE_OFFSET = 100;
+	private static final int UID_OFFSET = 108;
+	private static final int GID_OFFSET = 116;
+	private static final int SIZE_OFFSET = 124;
+	private static final int MTIME_OFFSET = 136;
+	private static final int CHECKSUM_OFFSET = 148;
+	private static final int TYPE_OFFSET = 156;
+	private static final int MAGIC_OFFSET = 257;
+
+	private static final byte[] FILE_MODE = octal(0644, 8);
+	private static final byte[] OWNER_ID = octal(0, 8);
+	private static final byte[] MAGIC = "ustar\u000000".getBytes(StandardCharsets.US_ASCII);
+	private static final byte REGULAR_FILE = '0';
+	private static final byte SPACE = ' ';
+
+	private final ByteBuffer header = ByteBuffer.allocateDirect(BLOCK_SIZE);
+	private final ByteBuffer padding = ByteBuffer.allocateDirect(BLOCK_SIZE);
+	private FileChannel channel;
+
+	@Override
+	protected String getExtension() {
+		return ".tar";
+	}
+
+	@Override
+	protected void openArchive(Path archive) throws IOException {
+		this.channel = FileChannel.open(archive, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+	}
+
+	@Override
+	protected long appendEntry(String fileName, long timeMillis, FileProviderData providerData) throws IOException {
+		byte[] name = fileName.getBytes(StandardCharsets.UTF_8);
+		long size = providerData.getContentLength();
+		if (name.length > NAME_LENGTH) {
+			throw new IOException("Name of " + fileName + " is longer than " + NAME_LENGTH + " bytes.");
+		}
+		if (size > MAX_ENTRY_SIZE) {
+			throw new IOException("File " + fileName + " is too large for a tar entry: " + size + " bytes.");
+		}
+		long entryStart = this.channel.position();
+		try {
+			this.writeFully(this.buildHeader(name, size, timeMillis));
+			long written = this.writeContent(providerData, size);
+			int remainder = (int) (written % BLOCK_SIZE);
+			if (remainder > 0) {
+				this.writePadding(BLOCK_SIZE - remainder);
+			}
+			return written;
+		} catch (IOException e) {
+			this.channel.truncate(entryStart);
+			this.channel.position(entryStart);
+			throw e;
+		}
+	}
+
+	@Override
+	protected void closeArchive() throws IOException {
+		try {
+			this.writePadding(END_BLOCKS * BLOCK_SIZE);
+			this.channel.force(true);
+		} finally {
+			this.channel.close();
+		}
+	}
+
+	private ByteBuffer buildHeader(byte[] name, long size, long timeMillis) {
+		ByteBuffer block = this.header;
+		block.clear();
+		while (block.hasRemaining()) {
+			block.put((byte) 0);
+		}
+		put(block, 0, name);
+		put(block, MODE_OFFSET, FILE_MODE);
+		put(block, UID_OFFSET, OWNER_ID);
+		put(block, GID_OFFSET, OWNER_ID);
+		put(block, SIZE_OFFSET, octal(size, 12));
+		put(block, MTIME_OFFSET, octal(TimeUnit.MILLISECONDS.toSeconds(timeMillis), 12));
+		for (int i = 0; i < 8; i++) {
+			block.put(CHECKSUM_OFFSET + i, SPACE);
+		}
+		block.put(TYPE_OFFSET, REGULAR_FILE);
+		put(block, MAGIC_OFFSET, MAGIC);
+		int checksum = 0;
+		for (int i = 0; i < BLOCK_SIZE; i++) {
+			checksum += block.get(i) & 0xff;
+		}
+		put(block, CHECKSUM_OFFSET, octal(checksum, 7));
+		block.clear();
+		return block;
+	}
+
+	private long writeContent(FileProviderData providerData, long size) throws IOException {
+		if (providerData.getContentStream() != null) {
+			return providerData.transferStream(this.channel);
+		}
+		FileChannel source = providerData.getSourceChannel();
+		if (source == null) {
+			return this.writeFully(providerData.getContentBuffer());
+		}
+		long position = 0;
+		while (position < size) {
+			long transferred = source.transferTo(position, size - position, this.channel);
+			if (transferred <= 0) {
+				throw new IOException("Source of " + providerData.getFileName() + " ended after " + position + " bytes.");
+			}
+			position += transferred;
+		}
+		return position;
+	}
+
+	private void writePadding(int length) throws IOException {
+		while (length > 0) {
+			this.padding.clear();
+			this.padding.limit(Math.min(length, BLOCK_SIZE));
+			length -= (int) this.writeFully(this.padding);
+		}
+	}
+
+	private long writeFully(ByteBuffer content) throws IOException {
+		long written = 0;
+		while (content.hasRemaining()) {
+			written += this.channel.write(content);
+		}
+		return written;
+	}
+
+	private static void put(ByteBuffer block, int offset, byte[] field) {
+		for (int i = 0; i < field.length; i++) {
+			block.put(offset + i, field[i]);
+		}
+	}
+
+	/**
+	 * @return zero padded octal value in a field of the given length, ending
+	 *         with a NUL byte
+	 */
+	private static byte[] octal(long value, int length) {
+		String digits = Long.toOctalString(value);
+		byte[] field = new byte[length];
+		int width = length - 1;
+		for (int i = 0; i < width; i++) {
+			int digit = i - (width - digits.length());
+			field[i] = (byte) (digit < 0 ? '0' : digits.charAt(digit));
+		}
+		return field;
+	}
+}
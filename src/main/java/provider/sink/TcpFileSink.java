@@ -0,0 +1,190 @@
+package provider.sink;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import provider.data.FileProviderData;
+import provider.properties.FileProviderProperties;
+
+/**
+ * Streams the files to a TCP endpoint, a stand-in for a network ingest. Each
+ * writer thread takes a connection for its writes and puts it back when it
+ * flushes, so threads writing a single file reuse the connections. A file is
+ * sent as a frame: the length of its name as int, the UTF-8 name, the length
+ * of the content as long and the content. The frames of a batch are sent with
+ * gathering writes, content of a source file is transferred straight from the
+ * file to the socket.
+ *
+ * @author Ivan Ivanov
+ */
+public class TcpFileSink implements FileSink {
+
+	private static final Logger log = Logger.getLogger(TcpFileSink.class);
+
+	private SinkContext context;
+	private InetSocketAddress address;
+	private WriterStates<SocketChannel> connections;
+	private List<SocketChannel> openedConnections;
+
+	/**
+	 * @see provider.sink.FileSink#open(provider.sink.SinkContext)
+	 */
+	@Override
+	public void open(SinkContext context) {
+		FileProviderProperties properties = context.getProperties();
+		this.context = context;
+		this.address = new InetSocketAddress(properties.getSinkTcpHost(), properties.getSinkTcpPort());
+		this.openedConnections = new ArrayList<>();
+		this.connections = new WriterStates<>();
+	}
+
+	/**
+	 * @see provider.sink.FileSink#write(java.util.List)
+	 */
+	@Override
+	public void write(List<FileProviderData> batch) {
+		long start = System.nanoTime();
+		List<String> fileNames = new ArrayList<>(batch.size());
+		try {
+			SocketChannel connection = this.connect();
+			List<ByteBuffer> frames = new ArrayList<>(2 * batch.size());
+			for (FileProviderData providerData : batch) {
+				String fileName = this.context.nextFileName(System.currentTimeMillis(), providerData.getFileName());
+				fileNames.add(fileName);
+				frames.add(frameHeader(fileName, providerData.getContentLength()));
+				FileChannel source = providerData.getSourceChannel();
+				if (providerData.getContentStream() != null) {
+					writeFully(connection, frames);
+					providerData.transferStream(connection);
+				} else if (source == null) {
+					frames.add(providerData.getContentBuffer());
+				} else {
+					writeFully(connection, frames);
+					transferFully(source, providerData, connection);
+				}
+			}
+			writeFully(connection, frames);
+			long latency = System.nanoTime() - start;
+			for (int i = 0; i < batch.size(); i++) {
+				FileProviderData providerData = batch.get(i);
+				this.context.written(providerData, fileNames.get(i), providerData.getContentLength(), latency);
+			}
+		} catch (IOException | RuntimeException e) {
+			this.disconnect();
+			for (FileProviderData providerData : batch) {
+				this.context.failed(providerData, e);
+			}
+		} finally {
+			for (FileProviderData providerData : batch) {
+				providerData.release();
+			}
+		}
+	}
+
+	/**
+	 * Puts the connection of the writer thread back. Closes it and the idle
+	 * connections when the writer finishes.
+	 *
+	 * @see provider.sink.FileSink#flush(boolean)
+	 */
+	@Override
+	public void flush(boolean finished) {
+		if (!finished) {
+			this.connections.putBack();
+			return;
+		}
+		for (SocketChannel connection : this.connections.drain()) {
+			synchronized (this.openedConnections) {
+				this.openedConnections.remove(connection);
+			}
+			closeQuietly(connection);
+		}
+	}
+
+	/**
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		if (this.openedConnections == null) {
+			return;
+		}
+		synchronized (this.openedConnections) {
+			for (SocketChannel connection : this.openedConnections) {
+				closeQuietly(connection);
+			}
+			this.openedConnections.clear();
+		}
+	}
+
+	private SocketChannel connect() throws IOException {
+		SocketChannel connection = this.connections.take();
+		if (connection == null) {
+			connection = SocketChannel.open(this.address);
+			this.connections.bind(connection);
+			synchronized (this.openedConnections) {
+				this.openedConnections.add(connection);
+			}
+		}
+		return connection;
+	}
+
+	private void disconnect() {
+		SocketChannel connection = this.connections.discard();
+		if (connection != null) {
+			synchronized (this.openedConnections) {
+				this.openedConnections.remove(connection);
+			}
+			closeQuietly(connection);
+		}
+	}
+
+	private static ByteBuffer frameHeader(String fileName, long contentLength) {
+		byte[] name = fileName.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + name.length + Long.BYTES);
+		header.putInt(name.length).put(name).putLong(contentLength);
+		header.flip();
+		return header;
+	}
+
+	private static void writeFully(SocketChannel connection, List<ByteBuffer> frames) throws IOException {
+		ByteBuffer[] buffers = frames.toArray(new ByteBuffer[frames.size()]);
+		long remaining = 0;
+		for (ByteBuffer buffer : buffers) {
+			remaining += buffer.remaining();
+		}
+		while (remaining > 0) {
+			remaining -= connection.write(buffers);
+		}
+		frames.clear();
+	}
+
+	private static void transferFully(FileChannel source, FileProviderData providerData, SocketChannel connection)
+			throws IOException {
+		long size = providerData.getContentLength();
+		long position = 0;
+		while (position < size) {
+			long transferred = source.transferTo(position, size - position, connection);
+			if (transferred <= 0) {
+				throw new IOException("Source of " + providerData.getFileName() + " ended after " + position + " bytes.");
+			}
+			position += transferred;
+		}
+	}
+
+	private static void closeQuietly(SocketChannel connection) {
+		try {
+			connection.close();
+		} catch (IOException e) {
+			log.error("Failed to close the connection to the sink.", e);
+		}
+	}
+}
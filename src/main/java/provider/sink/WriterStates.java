@@ -0,0 +1,91 @@
+package provider.sink;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * State kept by a sink for the writer threads between writes, e.g. the files
+ * waiting for a GROUP sync or a connection. A thread takes a state for its
+ * writes and puts it back when it flushes, so the state outlives the thread.
+ * Threads writing a single file each, like the virtual thread writers, reuse
+ * the states left by the threads before them instead of leaking them. The
+ * most recently put back state is taken first.
+ *
+ * @author Ivan Ivanov
+ */
+class WriterStates<T> {
+
+	private final ThreadLocal<T> taken;
+	private final Deque<T> idle;
+
+	WriterStates() {
+		this.taken = new ThreadLocal<>();
+		this.idle = new ConcurrentLinkedDeque<>();
+	}
+
+	/**
+	 * @return state taken by the calling thread, else an idle state, null when
+	 *         there is none
+	 */
+	T take() {
+		T state = this.taken.get();
+		if (state == null) {
+			state = this.idle.pollFirst();
+			if (state != null) {
+				this.taken.set(state);
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * @param state
+	 *            new state taken by the calling thread
+	 */
+	void bind(T state) {
+		this.taken.set(state);
+	}
+
+	/**
+	 * Puts the state of the calling thread back for the other threads.
+	 */
+	void putBack() {
+		T state = this.taken.get();
+		if (state != null) {
+			this.taken.remove();
+			this.idle.offerFirst(state);
+		}
+	}
+
+	/**
+	 * Forgets the state of the calling thread, e.g. a broken connection.
+	 *
+	 * @return the forgotten state, null when the thread has none
+	 */
+	T discard() {
+		T state = this.taken.get();
+		this.taken.remove();
+		return state;
+	}
+
+	/**
+	 * Removes the state of the calling thread and every idle state. The states
+	 * taken by other threads stay with them.
+	 *
+	 * @return the removed states
+	 */
+	List<T> drain() {
+		List<T> states = new ArrayList<>();
+		T own = this.taken.get();
+		if (own != null) {
+			this.taken.remove();
+			states.add(own);
+		}
+		for (T state = this.idle.pollFirst(); state != null; state = this.idle.pollFirst()) {
+			states.add(state);
+		}
+		return states;
+	}
+}
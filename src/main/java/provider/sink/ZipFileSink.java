@@ -0,0 +1,137 @@
+package provider.sink;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.log4j.Logger;
+
+import provider.data.FileProviderData;
+
+/**
+ * Streams the files into a zip archive. The entries are stored without
+ * compression, so the cost of each file is its checksum and the copy into the
+ * stream. Content of a source file is mapped to compute the checksum.
+ * Streamed content can not be read twice for the checksum, it is written as a
+ * deflated entry without compression, which carries its checksum after the
+ * content.
+ * <p>
+ * A zip stream can not be rolled back, so a failure within an entry closes
+ * the archive without completing it and every later file fails.
+ *
+ * @author Ivan Ivanov
+ */
+public class ZipFileSink extends ArchiveFileSink {
+
+	private static final Logger log = Logger.getLogger(ZipFileSink.class);
+
+	private static final int STREAM_BUFFER_SIZE = 256 * 1024;
+
+	private final CRC32 checksum = new CRC32();
+	private FileChannel file;
+	private ZipOutputStream zip;
+	private WritableByteChannel entryChannel;
+	private IOException failure;
+
+	@Override
+	protected String getExtension() {
+		return ".zip";
+	}
+
+	@Override
+	protected void openArchive(Path archive) throws IOException {
+		this.file = FileChannel.open(archive, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		this.zip = new ZipOutputStream(new BufferedOutputStream(Channels.newOutputStream(this.file), STREAM_BUFFER_SIZE));
+		this.zip.setMethod(ZipOutputStream.STORED);
+		this.zip.setLevel(Deflater.NO_COMPRESSION);
+		this.entryChannel = Channels.newChannel(this.zip);
+	}
+
+	@Override
+	protected long appendEntry(String fileName, long timeMillis, FileProviderData providerData) throws IOException {
+		if (this.failure != null) {
+			throw new IOException("Zip archive was closed after a failed entry.", this.failure);
+		}
+		if (providerData.getContentStream() != null) {
+			ZipEntry entry = new ZipEntry(fileName);
+			entry.setTime(timeMillis);
+			entry.setMethod(ZipEntry.DEFLATED);
+			try {
+				this.zip.putNextEntry(entry);
+				long size = providerData.transferStream(this.entryChannel);
+				this.zip.closeEntry();
+				return size;
+			} catch (IOException e) {
+				this.abort(e);
+				throw e;
+			}
+		}
+		ByteBuffer content = contentOf(providerData);
+		long size = content.remaining();
+		this.checksum.reset();
+		this.checksum.update(content.duplicate());
+
+		ZipEntry entry = new ZipEntry(fileName);
+		entry.setTime(timeMillis);
+		entry.setSize(size);
+		entry.setCompressedSize(size);
+		entry.setCrc(this.checksum.getValue());
+		try {
+			this.zip.putNextEntry(entry);
+			while (content.hasRemaining()) {
+				this.entryChannel.write(content);
+			}
+			this.zip.closeEntry();
+		} catch (IOException e) {
+			this.abort(e);
+			throw e;
+		}
+		return size;
+	}
+
+	@Override
+	protected void closeArchive() throws IOException {
+		if (this.failure != null) {
+			return;
+		}
+		try {
+			this.zip.finish();
+			this.zip.flush();
+			this.file.force(true);
+		} finally {
+			this.zip.close();
+		}
+	}
+
+	/**
+	 * Closes the archive file without completing the zip stream, which is
+	 * broken after a failed entry.
+	 */
+	private void abort(IOException error) {
+		this.failure = error;
+		log.error("Failed to append an entry. The zip archive is closed without being completed.");
+		try {
+			this.file.close();
+		} catch (IOException e) {
+			log.error("Failed to close the zip archive.", e);
+		}
+	}
+
+	private static ByteBuffer contentOf(FileProviderData providerData) throws IOException {
+		FileChannel source = providerData.getSourceChannel();
+		if (source == null) {
+			return providerData.getContentBuffer();
+		}
+		return source.map(FileChannel.MapMode.READ_ONLY, 0, providerData.getContentLength());
+	}
+}